@@ -25,6 +25,8 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.Random;
 
+import com.google.common.cache.CacheStats;
+
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.settings.KeyBinding;
@@ -36,6 +38,7 @@ import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraftforge.client.event.MouseEvent;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.client.event.RenderLivingEvent;
 import net.minecraftforge.client.event.TextureStitchEvent;
 import net.minecraftforge.client.model.ModelLoaderRegistry;
@@ -49,6 +52,7 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import appeng.api.parts.CableRenderMode;
 import appeng.api.util.AEColor;
 import appeng.block.AEBaseBlock;
+import appeng.client.render.cablebus.CableBusBakedModel;
 import appeng.client.render.effects.AssemblerFX;
 import appeng.client.render.effects.CraftingFx;
 import appeng.client.render.effects.EnergyFx;
@@ -343,6 +347,22 @@ public class ClientHelper extends ServerHelper
 	{
 		ParticleTextures.registerSprite( event );
 		InscriberTESR.registerTexture( event );
+		CableBusBakedModel.invalidateCaches();
+	}
+
+	@SubscribeEvent
+	public void onDebugOverlay( final RenderGameOverlayEvent.Text event )
+	{
+		if( !Minecraft.getMinecraft().gameSettings.showDebugInfo )
+		{
+			return;
+		}
+
+		final CacheStats cables = CableBusBakedModel.getCableCacheStats();
+		final CacheStats parts = CableBusBakedModel.getPartCacheStats();
+
+		event.getLeft().add( String.format( "AE2 cable quads: %d hits, %d misses; part quads: %d hits, %d misses", cables.hitCount(), cables.missCount(), parts
+				.hitCount(), parts.missCount() ) );
 	}
 
 	@Override
@@ -20,6 +20,7 @@ package appeng.client.gui.implementations;
 
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.lwjgl.input.Keyboard;
@@ -60,6 +61,7 @@ import appeng.core.localization.GuiText;
 import appeng.core.sync.GuiBridge;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketSwitchGuis;
+import appeng.core.sync.packets.PacketTerminalView;
 import appeng.core.sync.packets.PacketValueConfig;
 import appeng.helpers.WirelessTerminalGuiObject;
 import appeng.integration.Integrations;
@@ -100,6 +102,7 @@ public class GuiMEMonitorable extends AEBaseMEGui implements ISortSource, IConfi
 	private boolean isAutoFocus = false;
 	private int currentMouseX = 0;
 	private int currentMouseY = 0;
+	private List<IAEItemStack> visibleItems = new ArrayList<>();
 
 	public GuiMEMonitorable( final InventoryPlayer inventoryPlayer, final ITerminalHost te )
 	{
@@ -114,6 +117,7 @@ public class GuiMEMonitorable extends AEBaseMEGui implements ISortSource, IConfi
 		final GuiScrollbar scrollbar = new GuiScrollbar();
 		this.setScrollBar( scrollbar );
 		this.repo = new ItemRepo( scrollbar, this );
+		this.repo.setViewListener( this::setScrollBar );
 
 		this.xSize = 185;
 		this.ySize = 204;
@@ -526,9 +530,33 @@ public class GuiMEMonitorable extends AEBaseMEGui implements ISortSource, IConfi
 	public void updateScreen()
 	{
 		this.repo.setPower( this.monitorableContainer.isPowered() );
+		this.updateVisibleItems();
 		super.updateScreen();
 	}
 
+	/**
+	 * Tells the server which items are on the current page whenever that changes, their updates are sent first.
+	 */
+	private void updateVisibleItems()
+	{
+		final List<IAEItemStack> visible = new ArrayList<>( this.rows * this.perRow );
+
+		for( int x = 0; x < this.rows * this.perRow; x++ )
+		{
+			final IAEItemStack is = this.repo.getReferenceItem( x );
+			if( is != null )
+			{
+				visible.add( is );
+			}
+		}
+
+		if( !visible.equals( this.visibleItems ) )
+		{
+			this.visibleItems = visible;
+			NetworkHandler.instance().sendToServer( new PacketTerminalView( visible ) );
+		}
+	}
+
 	@Override
 	public Enum getSortBy()
 	{
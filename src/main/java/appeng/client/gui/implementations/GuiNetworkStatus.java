@@ -64,6 +64,7 @@ public class GuiNetworkStatus extends AEBaseGui implements ISortSource
 
 		this.setScrollBar( scrollbar );
 		this.repo = new ItemRepo( scrollbar, this );
+		this.repo.setViewListener( this::setScrollBar );
 		this.ySize = 153;
 		this.xSize = 195;
 		this.repo.setRowSize( 5 );
@@ -21,16 +21,28 @@ package appeng.client.me;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 
+import net.minecraft.client.Minecraft;
 import net.minecraft.item.ItemStack;
 
 import appeng.api.AEApi;
 import appeng.api.config.SearchBoxMode;
 import appeng.api.config.Settings;
+import appeng.api.config.SortDir;
 import appeng.api.config.SortOrder;
 import appeng.api.config.ViewItems;
 import appeng.api.config.YesNo;
@@ -50,8 +62,28 @@ import appeng.util.prioritylist.IPartitionList;
 public class ItemRepo
 {
 
+	/**
+	 * Filters and sorts the views of all terminals, only the latest request of a terminal is applied.
+	 */
+	private static final ExecutorService SEARCH_THREAD;
+
+	static
+	{
+		final ThreadFactory factory = ar ->
+		{
+			final Thread thread = new Thread( ar, "AE Terminal Search" );
+			thread.setDaemon( true );
+			return thread;
+		};
+
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor( 1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory );
+		pool.allowCoreThreadTimeOut( true );
+		SEARCH_THREAD = pool;
+	}
+
 	private final IItemList<IAEItemStack> list = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
-	private final ArrayList<IAEItemStack> view = new ArrayList<>();
+	private final Map<IAEItemStack, SearchEntry> index = new HashMap<>();
+	private List<IAEItemStack> view = new ArrayList<>();
 	private final IScrollSource src;
 	private final ISortSource sortSrc;
 
@@ -61,6 +93,10 @@ public class ItemRepo
 	private IPartitionList<IAEItemStack> myPartitionList;
 	private String innerSearch = "";
 	private boolean hasPower;
+	// the latest requested view, read by the search thread to skip requests which were replaced while queued.
+	private final AtomicInteger generation = new AtomicInteger();
+	private int shownGeneration = 0;
+	private Runnable viewListener;
 
 	public ItemRepo( final IScrollSource src, final ISortSource sortSrc )
 	{
@@ -96,7 +132,21 @@ public class ItemRepo
 		else
 		{
 			this.list.add( is );
+			this.getSearchEntry( is );
+		}
+	}
+
+	private SearchEntry getSearchEntry( final IAEItemStack is )
+	{
+		SearchEntry entry = this.index.get( is );
+
+		if( entry == null )
+		{
+			entry = new SearchEntry( is );
+			this.index.put( is.copy(), entry );
 		}
+
+		return entry;
 	}
 
 	public void setViewCell( final ItemStack[] list )
@@ -105,12 +155,20 @@ public class ItemRepo
 		this.updateView();
 	}
 
-	public void updateView()
+	/**
+	 * Called on the client thread after a new view was swapped in.
+	 */
+	public void setViewListener( final Runnable viewListener )
 	{
-		this.view.clear();
-
-		this.view.ensureCapacity( this.list.size() );
+		this.viewListener = viewListener;
+	}
 
+	/**
+	 * Collects the candidates of the view and filters and sorts them on the search thread. The result replaces the
+	 * current view on the client thread once it is done.
+	 */
+	public void updateView()
+	{
 		final Enum viewMode = this.sortSrc.getSortDisplay();
 		final Enum searchMode = AEConfig.instance().getConfigManager().getSetting( Settings.SEARCH_MODE );
 		final boolean needsZeroCopy = viewMode == ViewItems.CRAFTABLE;
@@ -147,8 +205,11 @@ public class ItemRepo
 			}
 		}
 
-		boolean notDone = false;
-		for( IAEItemStack is : this.list )
+		// an empty search matches every name, so the tooltips are only needed for an actual search
+		final boolean searchToolTips = terminalSearchToolTips && !searchMod && !this.innerSearch.isEmpty();
+		final List<Candidate> candidates = new ArrayList<>( this.list.size() );
+
+		for( final IAEItemStack is : this.list )
 		{
 			if( this.myPartitionList != null )
 			{
@@ -168,26 +229,84 @@ public class ItemRepo
 				continue;
 			}
 
-			final String dspName = searchMod ? Platform.getModId( is ) : Platform.getItemDisplayName( is );
-			boolean foundMatchingItemStack = false;
-			notDone = true;
-
-			if( m.matcher( dspName.toLowerCase() ).find() )
+			final SearchEntry entry = this.getSearchEntry( is );
+			if( searchToolTips )
 			{
-				notDone = false;
-				foundMatchingItemStack = true;
+				entry.loadTooltip( is );
 			}
 
-			if( terminalSearchToolTips && notDone && !searchMod )
+			// the search thread only reads the size, the stacks themselves are collected on the client thread again
+			candidates.add( new Candidate( is, needsZeroCopy ? 0 : is.getStackSize(), entry ) );
+		}
+
+		final Enum sortBy = this.sortSrc.getSortBy();
+		final SortDir sortDir = (SortDir) this.sortSrc.getSortDir();
+		final int request = this.generation.incrementAndGet();
+		final Pattern pattern = m;
+		final boolean byMod = searchMod;
+
+		if( sortBy == SortOrder.INVTWEAKS )
+		{
+			// the inventory tweaks api is not meant to be used off the client thread
+			ItemSorters.setDirection( sortDir );
+			ItemSorters.init();
+
+			final List<IAEItemStack> result = toStacks( filter( candidates, pattern, byMod, searchToolTips ), needsZeroCopy );
+			Collections.sort( result, ItemSorters.CONFIG_BASED_SORT_BY_INV_TWEAKS );
+			this.setView( request, result );
+			return;
+		}
+
+		final Comparator<Candidate> comparator = createComparator( sortBy, sortDir );
+
+		SEARCH_THREAD.execute( () ->
+		{
+			if( request != this.generation.get() )
 			{
-				final List<String> tooltip = Platform.getTooltip( is );
+				return;
+			}
+
+			final List<Candidate> found = filter( candidates, pattern, byMod, searchToolTips );
+			found.sort( comparator );
+
+			Minecraft.getMinecraft().addScheduledTask( () -> this.setView( request, toStacks( found, needsZeroCopy ) ) );
+		} );
+	}
+
+	private void setView( final int request, final List<IAEItemStack> result )
+	{
+		// a result of a replaced request is still shown if it is newer than the current view, otherwise a terminal which
+		// changes faster than it can be sorted would never update.
+		if( request <= this.shownGeneration )
+		{
+			return;
+		}
+
+		this.shownGeneration = request;
+		this.view = result;
+
+		if( this.viewListener != null )
+		{
+			this.viewListener.run();
+		}
+	}
+
+	private static List<Candidate> filter( final List<Candidate> candidates, final Pattern m, final boolean searchMod, final boolean searchToolTips )
+	{
+		final List<Candidate> result = new ArrayList<>( candidates.size() );
+
+		for( final Candidate candidate : candidates )
+		{
+			final SearchEntry entry = candidate.entry;
+			boolean foundMatchingItemStack = m.matcher( searchMod ? entry.modId : entry.lowerName ).find();
 
-				for( final String line : tooltip )
+			if( !foundMatchingItemStack && searchToolTips )
+			{
+				for( final String line : entry.tooltip )
 				{
 					if( m.matcher( line ).find() )
 					{
 						foundMatchingItemStack = true;
-						notDone = false;
 						break;
 					}
 				}
@@ -195,38 +314,51 @@ public class ItemRepo
 
 			if( foundMatchingItemStack )
 			{
-				if( needsZeroCopy )
-				{
-					is = is.copy();
-					is.setStackSize( 0 );
-				}
-
-				this.view.add( is );
+				result.add( candidate );
 			}
 		}
 
-		final Enum SortBy = this.sortSrc.getSortBy();
-		final Enum SortDir = this.sortSrc.getSortDir();
+		return result;
+	}
 
-		ItemSorters.setDirection( (appeng.api.config.SortDir) SortDir );
-		ItemSorters.init();
+	private static List<IAEItemStack> toStacks( final List<Candidate> candidates, final boolean needsZeroCopy )
+	{
+		final List<IAEItemStack> stacks = new ArrayList<>( candidates.size() );
 
-		if( SortBy == SortOrder.MOD )
+		for( final Candidate candidate : candidates )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_MOD );
+			if( needsZeroCopy )
+			{
+				stacks.add( candidate.stack.copy().setStackSize( 0 ) );
+			}
+			else
+			{
+				stacks.add( candidate.stack );
+			}
 		}
-		else if( SortBy == SortOrder.AMOUNT )
+
+		return stacks;
+	}
+
+	private static Comparator<Candidate> createComparator( final Enum sortBy, final SortDir sortDir )
+	{
+		final Comparator<Candidate> byName = ( o1, o2 ) -> ItemSorters.compareNames( o1.entry.name, o2.entry.name );
+		final Comparator<Candidate> comparator;
+
+		if( sortBy == SortOrder.MOD )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_SIZE );
+			comparator = ( (Comparator<Candidate>) ( o1, o2 ) -> ItemSorters.compareMods( o1.entry.modId, o2.entry.modId ) ).thenComparing( byName );
 		}
-		else if( SortBy == SortOrder.INVTWEAKS )
+		else if( sortBy == SortOrder.AMOUNT )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_INV_TWEAKS );
+			comparator = ( o1, o2 ) -> ItemSorters.compareSizes( o1.size, o2.size );
 		}
 		else
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_NAME );
+			comparator = byName;
 		}
+
+		return sortDir == SortDir.ASCENDING ? comparator : comparator.reversed();
 	}
 
 	private void updateJEI( String filter )
@@ -273,4 +405,47 @@ public class ItemRepo
 	{
 		this.searchString = searchString;
 	}
+
+	/**
+	 * The searchable text of an item type, collected once on the client thread.
+	 */
+	private static final class SearchEntry
+	{
+		private final String name;
+		private final String lowerName;
+		private final String modId;
+		private List<String> tooltip;
+
+		private SearchEntry( final IAEItemStack is )
+		{
+			this.name = Platform.getItemDisplayName( is );
+			this.lowerName = this.name.toLowerCase( Locale.ROOT );
+			this.modId = Platform.getModId( is );
+		}
+
+		private void loadTooltip( final IAEItemStack is )
+		{
+			if( this.tooltip == null )
+			{
+				this.tooltip = Platform.getTooltip( is );
+			}
+		}
+	}
+
+	/**
+	 * The stack is only touched on the client thread, the search thread works on the size and the search entry.
+	 */
+	private static final class Candidate
+	{
+		private final IAEItemStack stack;
+		private final long size;
+		private final SearchEntry entry;
+
+		private Candidate( final IAEItemStack stack, final long size, final SearchEntry entry )
+		{
+			this.stack = stack;
+			this.size = size;
+			this.entry = entry;
+		}
+	}
 }
@@ -22,14 +22,20 @@ package appeng.client.render.cablebus;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import javax.annotation.Nullable;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.BakedQuad;
@@ -54,7 +60,10 @@ import appeng.block.networking.BlockCableBus;
 public class CableBusBakedModel implements IBakedModel
 {
 
-	private static final Map<CableBusRenderState, List<BakedQuad>> CABLE_MODEL_CACHE = new HashMap<>();
+	// Both caches are used by the chunk rebuild threads and are cleared when the textures are reloaded.
+	private static final Cache<CableCacheKey, List<BakedQuad>> CABLE_MODEL_CACHE = CacheBuilder.newBuilder().maximumSize( 4096 ).recordStats().build();
+
+	private static final Cache<PartQuadsCacheKey, List<BakedQuad>> PART_MODEL_CACHE = CacheBuilder.newBuilder().maximumSize( 2048 ).recordStats().build();
 
 	private final CableBuilder cableBuilder;
 
@@ -95,7 +104,7 @@ public class CableBusBakedModel implements IBakedModel
 		{
 
 			// First, handle the cable at the center of the cable bus
-			final List<BakedQuad> cableModel = CABLE_MODEL_CACHE.computeIfAbsent( renderState, k ->
+			final List<BakedQuad> cableModel = getCached( CABLE_MODEL_CACHE, new CableCacheKey( renderState ), () ->
 			{
 				final List<BakedQuad> model = new ArrayList<>();
 				this.addCableQuads( renderState, model );
@@ -121,19 +130,24 @@ public class CableBusBakedModel implements IBakedModel
 						throw new IllegalStateException( "Trying to use an unregistered part model: " + model );
 					}
 
-					List<BakedQuad> partQuads;
-					if( bakedModel instanceof IPartBakedModel )
-					{
-						partQuads = ( (IPartBakedModel) bakedModel ).getPartQuads( renderState.getPartFlags().get( facing ), rand );
-					}
-					else
+					// Part models do not depend on the block state or the random seed, only on the flags of the part
+					final Long partFlags = bakedModel instanceof IPartBakedModel ? renderState.getPartFlags().get( facing ) : null;
+					final List<BakedQuad> partQuads = getCached( PART_MODEL_CACHE, new PartQuadsCacheKey( model, facing, partFlags ), () ->
 					{
-						partQuads = bakedModel.getQuads( state, null, rand );
-					}
-
-					// Rotate quads accordingly
-					QuadRotator rotator = new QuadRotator();
-					partQuads = rotator.rotateQuads( partQuads, facing, EnumFacing.UP );
+						List<BakedQuad> unrotated;
+						if( bakedModel instanceof IPartBakedModel )
+						{
+							unrotated = ( (IPartBakedModel) bakedModel ).getPartQuads( partFlags, rand );
+						}
+						else
+						{
+							unrotated = bakedModel.getQuads( state, null, rand );
+						}
+
+						// Rotate quads accordingly
+						QuadRotator rotator = new QuadRotator();
+						return rotator.rotateQuads( unrotated, facing, EnumFacing.UP );
+					} );
 
 					quads.addAll( partQuads );
 				}
@@ -144,6 +158,37 @@ public class CableBusBakedModel implements IBakedModel
 		return quads;
 	}
 
+	private static <K> List<BakedQuad> getCached( Cache<K, List<BakedQuad>> cache, K key, Callable<List<BakedQuad>> loader )
+	{
+		try
+		{
+			return cache.get( key, loader );
+		}
+		catch( ExecutionException | UncheckedExecutionException e )
+		{
+			throw new IllegalStateException( "Unable to build cable bus quads.", e.getCause() );
+		}
+	}
+
+	/**
+	 * Drops all cached quads, they refer to the sprites of the previous texture atlas.
+	 */
+	public static void invalidateCaches()
+	{
+		CABLE_MODEL_CACHE.invalidateAll();
+		PART_MODEL_CACHE.invalidateAll();
+	}
+
+	public static CacheStats getCableCacheStats()
+	{
+		return CABLE_MODEL_CACHE.stats();
+	}
+
+	public static CacheStats getPartCacheStats()
+	{
+		return PART_MODEL_CACHE.stats();
+	}
+
 	// Determines whether a cable is connected to exactly two sides that are opposite each other
 	private static boolean isStraightLine( AECableType cableType, EnumMap<EnumFacing, AECableType> sides )
 	{
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+
+package appeng.client.render.cablebus;
+
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Objects;
+
+import net.minecraft.util.EnumFacing;
+
+import appeng.api.parts.IPartModel;
+import appeng.api.util.AECableType;
+import appeng.api.util.AEColor;
+
+
+/**
+ * Used as the cache key for the cable quads of a cable bus, contains only what affects the geometry of the cable.
+ */
+final class CableCacheKey
+{
+	private final AECableType cableType;
+	private final CableCoreType coreType;
+	private final AEColor cableColor;
+	private final EnumMap<EnumFacing, AECableType> connectionTypes;
+	private final EnumSet<EnumFacing> cableBusAdjacent;
+	private final EnumMap<EnumFacing, Integer> channelsOnSide;
+	private final EnumMap<EnumFacing, Integer> attachmentConnections;
+	private final boolean attachmentsRequireCable;
+	private final int hash;
+
+	CableCacheKey( CableBusRenderState renderState )
+	{
+		this.cableType = renderState.getCableType();
+		this.coreType = renderState.getCoreType();
+		this.cableColor = renderState.getCableColor();
+		this.connectionTypes = renderState.getConnectionTypes();
+		this.cableBusAdjacent = renderState.getCableBusAdjacent();
+		this.channelsOnSide = renderState.getChannelsOnSide();
+		this.attachmentConnections = renderState.getAttachmentConnections();
+		this.attachmentsRequireCable = renderState.getAttachments().values().stream().anyMatch( IPartModel::requireCableConnection );
+		this.hash = Objects.hash( this.cableType, this.coreType, this.cableColor, this.connectionTypes, this.cableBusAdjacent, this.channelsOnSide,
+				this.attachmentConnections, this.attachmentsRequireCable );
+	}
+
+	@Override
+	public boolean equals( Object o )
+	{
+		if( this == o )
+		{
+			return true;
+		}
+		if( o == null || this.getClass() != o.getClass() )
+		{
+			return false;
+		}
+
+		CableCacheKey cacheKey = (CableCacheKey) o;
+		return this.cableType == cacheKey.cableType && this.coreType == cacheKey.coreType && this.cableColor == cacheKey.cableColor && this.attachmentsRequireCable == cacheKey.attachmentsRequireCable && this.connectionTypes
+				.equals( cacheKey.connectionTypes ) && this.cableBusAdjacent.equals( cacheKey.cableBusAdjacent ) && this.channelsOnSide
+						.equals( cacheKey.channelsOnSide ) && this.attachmentConnections.equals( cacheKey.attachmentConnections );
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.hash;
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+
+package appeng.client.render.cablebus;
+
+
+import java.util.Objects;
+
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
+
+
+/**
+ * Used as the cache key for the rotated quads of a part model attached to a side of a cable bus.
+ */
+final class PartQuadsCacheKey
+{
+	private final ResourceLocation model;
+	private final EnumFacing facing;
+	private final Long partFlags;
+
+	PartQuadsCacheKey( ResourceLocation model, EnumFacing facing, Long partFlags )
+	{
+		this.model = model;
+		this.facing = facing;
+		this.partFlags = partFlags;
+	}
+
+	@Override
+	public boolean equals( Object o )
+	{
+		if( this == o )
+		{
+			return true;
+		}
+		if( o == null || this.getClass() != o.getClass() )
+		{
+			return false;
+		}
+
+		PartQuadsCacheKey cacheKey = (PartQuadsCacheKey) o;
+		return this.model.equals( cacheKey.model ) && this.facing == cacheKey.facing && Objects.equals( this.partFlags, cacheKey.partFlags );
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash( this.model, this.facing, this.partFlags );
+	}
+}
@@ -55,9 +55,11 @@ import appeng.api.storage.data.IItemList;
 import appeng.container.AEBaseContainer;
 import appeng.container.guisync.GuiSync;
 import appeng.core.AELog;
+import appeng.core.localization.PlayerMessages;
 import appeng.core.sync.GuiBridge;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketMEInventoryUpdate;
+import appeng.crafting.CraftingJob;
 import appeng.helpers.WirelessTerminalGuiObject;
 import appeng.me.helpers.PlayerSource;
 import appeng.parts.reporting.PartCraftingTerminal;
@@ -189,6 +191,15 @@ public class ContainerCraftConfirm extends AEBaseContainer
 			{
 				this.result = this.getJob().get();
 
+				if( this.result instanceof CraftingJob && ( (CraftingJob) this.result ).isTimedOut() )
+				{
+					this.getPlayerInv().player.sendMessage( PlayerMessages.CraftingCalculationTimedOut.get() );
+					this.setValidContainer( false );
+					this.result = null;
+					this.setJob( null );
+					return;
+				}
+
 				if( !this.result.isSimulation() )
 				{
 					this.setSimulation( false );
@@ -21,9 +21,12 @@ package appeng.container.implementations;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
@@ -42,6 +45,8 @@ import appeng.helpers.DualityInterface;
 import appeng.helpers.IInterfaceHost;
 import appeng.helpers.InventoryAction;
 import appeng.items.misc.ItemEncodedPattern;
+import appeng.me.cache.InterfaceTerminalCache;
+import appeng.me.cache.helpers.IInterfaceTerminalListener;
 import appeng.parts.misc.PartInterface;
 import appeng.parts.reporting.PartInterfaceTerminal;
 import appeng.tile.inventory.AppEngInternalInventory;
@@ -56,9 +61,14 @@ import appeng.util.inv.WrapperRangeItemHandler;
 import appeng.util.inv.filter.IAEItemFilter;
 
 
-public final class ContainerInterfaceTerminal extends AEBaseContainer
+public final class ContainerInterfaceTerminal extends AEBaseContainer implements IInterfaceTerminalListener
 {
 
+	/**
+	 * the names depend on the blocks next to the interfaces, which do not notify them, so they are checked this often.
+	 */
+	private static final int NAME_CHECK_TICKS = 20;
+
 	/**
 	 * this stuff is all server side..
 	 */
@@ -66,8 +76,12 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 	private static long autoBase = Long.MIN_VALUE;
 	private final Map<IInterfaceHost, InvTracker> diList = new HashMap<>();
 	private final Map<Long, InvTracker> byId = new HashMap<>();
+	private final Set<IInterfaceHost> dirty = new HashSet<>();
 	private IGrid grid;
 	private NBTTagCompound data = new NBTTagCompound();
+	private boolean regen = true;
+	private boolean wasActive;
+	private int ticksSinceNameCheck;
 
 	public ContainerInterfaceTerminal( final InventoryPlayer ip, final PartInterfaceTerminal anchor )
 	{
@@ -75,12 +89,53 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 
 		if( Platform.isServer() )
 		{
-			this.grid = anchor.getActionableNode().getGrid();
+			this.setGrid( anchor.getActionableNode().getGrid() );
 		}
 
 		this.bindPlayerInventory( ip, 0, 222 - /* height of player inventory */82 );
 	}
 
+	private void setGrid( final IGrid grid )
+	{
+		if( this.grid != null )
+		{
+			final InterfaceTerminalCache cache = this.grid.getCache( InterfaceTerminalCache.class );
+			cache.removeListener( this );
+		}
+
+		this.grid = grid;
+		this.regen = true;
+
+		if( this.grid != null )
+		{
+			final InterfaceTerminalCache cache = this.grid.getCache( InterfaceTerminalCache.class );
+			cache.addListener( this );
+		}
+	}
+
+	@Override
+	public void onInterfaceChanged( final IInterfaceHost host )
+	{
+		this.dirty.add( host );
+	}
+
+	@Override
+	public void onInterfacesChanged()
+	{
+		this.regen = true;
+	}
+
+	@Override
+	public void onContainerClosed( final EntityPlayer player )
+	{
+		super.onContainerClosed( player );
+
+		if( Platform.isServer() )
+		{
+			this.setGrid( null );
+		}
+	}
+
 	@Override
 	public void detectAndSendChanges()
 	{
@@ -96,94 +151,59 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 			return;
 		}
 
-		int total = 0;
-		boolean missing = false;
-
 		final IActionHost host = this.getActionHost();
-		if( host != null )
-		{
-			final IGridNode agn = host.getActionableNode();
-			if( agn != null && agn.isActive() )
-			{
-				for( final IGridNode gn : this.grid.getMachines( TileInterface.class ) )
-				{
-					if( gn.isActive() )
-					{
-						final IInterfaceHost ih = (IInterfaceHost) gn.getMachine();
-						if( ih.getInterfaceDuality().getConfigManager().getSetting( Settings.INTERFACE_TERMINAL ) == YesNo.NO )
-						{
-							continue;
-						}
-
-						final InvTracker t = this.diList.get( ih );
-
-						if( t == null )
-						{
-							missing = true;
-						}
-						else
-						{
-							final DualityInterface dual = ih.getInterfaceDuality();
-							if( !t.unlocalizedName.equals( dual.getTermName() ) )
-							{
-								missing = true;
-							}
-						}
-
-						total++;
-					}
-				}
-
-				for( final IGridNode gn : this.grid.getMachines( PartInterface.class ) )
-				{
-					if( gn.isActive() )
-					{
-						final IInterfaceHost ih = (IInterfaceHost) gn.getMachine();
-						if( ih.getInterfaceDuality().getConfigManager().getSetting( Settings.INTERFACE_TERMINAL ) == YesNo.NO )
-						{
-							continue;
-						}
+		final IGridNode agn = host == null ? null : host.getActionableNode();
+		final boolean active = agn != null && agn.isActive();
 
-						final InvTracker t = this.diList.get( ih );
+		if( active && agn.getGrid() != this.grid )
+		{
+			this.setGrid( agn.getGrid() );
+		}
 
-						if( t == null )
-						{
-							missing = true;
-						}
-						else
-						{
-							final DualityInterface dual = ih.getInterfaceDuality();
-							if( !t.unlocalizedName.equals( dual.getTermName() ) )
-							{
-								missing = true;
-							}
-						}
+		if( active != this.wasActive )
+		{
+			this.wasActive = active;
+			this.regen = true;
+		}
 
-						total++;
-					}
-				}
-			}
+		if( active && !this.regen && ++this.ticksSinceNameCheck >= NAME_CHECK_TICKS )
+		{
+			this.ticksSinceNameCheck = 0;
+			this.regen = this.hasNameChanged();
 		}
 
-		if( total != this.diList.size() || missing )
+		if( this.regen )
 		{
 			this.regenList( this.data );
 		}
 		else
 		{
-			for( final Entry<IInterfaceHost, InvTracker> en : this.diList.entrySet() )
+			for( final IInterfaceHost ih : this.dirty )
 			{
-				final InvTracker inv = en.getValue();
-				for( int x = 0; x < inv.server.getSlots(); x++ )
+				final InvTracker inv = this.diList.get( ih );
+				final boolean visible = ih.getInterfaceDuality().getConfigManager().getSetting( Settings.INTERFACE_TERMINAL ) == YesNo.YES;
+
+				if( ( inv != null ) != visible )
 				{
-					if( this.isDifferent( inv.server.getStackInSlot( x ), inv.client.getStackInSlot( x ) ) )
+					this.regenList( this.data );
+					break;
+				}
+
+				if( inv != null )
+				{
+					for( int x = 0; x < inv.server.getSlots(); x++ )
 					{
-						this.addItems( this.data, inv, x, 1 );
+						if( this.isDifferent( inv.server.getStackInSlot( x ), inv.client.getStackInSlot( x ) ) )
+						{
+							this.addItems( this.data, inv, x, 1 );
+						}
 					}
 				}
 			}
 		}
 
+		this.dirty.clear();
+
 		if( !this.data.hasNoTags() )
 		{
 			try
@@ -199,6 +219,19 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 		}
 	}
 
+	private boolean hasNameChanged()
+	{
+		for( final Entry<IInterfaceHost, InvTracker> en : this.diList.entrySet() )
+		{
+			if( !en.getValue().unlocalizedName.equals( en.getKey().getInterfaceDuality().getTermName() ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	@Override
 	public void doAction( final EntityPlayerMP player, final InventoryAction action, final int slot, final long id )
 	{
@@ -315,6 +348,8 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 	{
 		this.byId.clear();
 		this.diList.clear();
+		this.regen = false;
+		this.ticksSinceNameCheck = 0;
 
 		final IActionHost host = this.getActionHost();
 		if( host != null )
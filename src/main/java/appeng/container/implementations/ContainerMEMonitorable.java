@@ -21,6 +21,8 @@ package appeng.container.implementations;
 
 import java.io.IOException;
 import java.nio.BufferOverflowException;
+import java.util.Iterator;
+import java.util.List;
 
 import javax.annotation.Nonnull;
 
@@ -63,7 +65,9 @@ import appeng.api.util.IConfigurableObject;
 import appeng.container.AEBaseContainer;
 import appeng.container.guisync.GuiSync;
 import appeng.container.slot.SlotRestrictedInput;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
+import appeng.core.sync.ItemDictionary;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketMEInventoryUpdate;
 import appeng.core.sync.packets.PacketValueConfig;
@@ -78,7 +82,8 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 
 	private final SlotRestrictedInput[] cellView = new SlotRestrictedInput[5];
 	private final IMEMonitor<IAEItemStack> monitor;
-	private final IItemList<IAEItemStack> items = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+	private IItemList<IAEItemStack> items = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+	private IItemList<IAEItemStack> visibleItems = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
 	private final IConfigManager clientCM;
 	private final ITerminalHost host;
 	@GuiSync( 99 )
@@ -88,6 +93,10 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 	private IConfigManagerHost gui;
 	private IConfigManager serverCM;
 	private IGridNode networkNode;
+	private ItemDictionary itemDictionary;
+	private int ticksSinceUpdate = 0;
+	private long bytesSent = 0;
+	private long packetsSent = 0;
 
 	public ContainerMEMonitorable( final InventoryPlayer ip, final ITerminalHost monitorable )
 	{
@@ -219,46 +228,7 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 				}
 			}
 
-			if( !this.items.isEmpty() )
-			{
-				try
-				{
-					final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
-
-					final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
-
-					for( final IAEItemStack is : this.items )
-					{
-						final IAEItemStack send = monitorCache.findPrecise( is );
-						if( send == null )
-						{
-							is.setStackSize( 0 );
-							piu.appendItem( is );
-						}
-						else
-						{
-							piu.appendItem( send );
-						}
-					}
-
-					if( !piu.isEmpty() )
-					{
-						this.items.resetStatus();
-
-						for( final Object c : this.listeners )
-						{
-							if( c instanceof EntityPlayer )
-							{
-								NetworkHandler.instance().sendTo( piu, (EntityPlayerMP) c );
-							}
-						}
-					}
-				}
-				catch( final IOException e )
-				{
-					AELog.debug( e );
-				}
-			}
+			this.sendPendingItems();
 
 			this.updatePowerStatus();
 
@@ -280,6 +250,151 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 
 	}
 
+	/**
+	 * Sends the changed items, changes of visible items every tick and all others once per update interval, limited to
+	 * the configured bytes per tick. Whatever does not fit stays queued for the next tick.
+	 */
+	private void sendPendingItems()
+	{
+		this.ticksSinceUpdate++;
+		final boolean sendAll = this.ticksSinceUpdate >= AEConfig.instance().getTerminalUpdateInterval();
+
+		if( !sendAll && !this.hasVisibleChanges() )
+		{
+			return;
+		}
+
+		try
+		{
+			final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
+			final int budget = AEConfig.instance().getTerminalBytesPerTick();
+			final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( (byte) 0, this.itemDictionary );
+
+			if( this.appendPendingItems( piu, monitorCache, budget, true ) && sendAll && this.appendPendingItems( piu, monitorCache, budget, false ) )
+			{
+				// start over, the table would otherwise stay at the size of the largest burst of changes
+				this.items = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+				this.ticksSinceUpdate = 0;
+			}
+
+			if( !piu.isEmpty() )
+			{
+				this.bytesSent += piu.getLength();
+				this.packetsSent++;
+
+				for( final Object c : this.listeners )
+				{
+					if( c instanceof EntityPlayer )
+					{
+						NetworkHandler.instance().sendTo( piu, (EntityPlayerMP) c );
+					}
+				}
+			}
+		}
+		catch( final IOException e )
+		{
+			AELog.debug( e );
+		}
+	}
+
+	private boolean hasVisibleChanges()
+	{
+		for( final IAEItemStack visible : this.visibleItems )
+		{
+			final IAEItemStack is = this.items.findPrecise( visible );
+
+			if( is != null && is.isMeaningful() )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Moves pending items into the packet, removing them from the pending list.
+	 *
+	 * @return false if the packet is full for this tick and items are left.
+	 */
+	private boolean appendPendingItems( final PacketMEInventoryUpdate piu, final IItemList<IAEItemStack> monitorCache, final int budget, final boolean visibleOnly ) throws IOException
+	{
+		final Iterator<IAEItemStack> i = this.items.iterator();
+
+		while( i.hasNext() )
+		{
+			final IAEItemStack is = i.next();
+
+			if( visibleOnly && this.visibleItems.findPrecise( is ) == null )
+			{
+				continue;
+			}
+
+			if( !this.appendPendingItem( piu, monitorCache, is, budget ) )
+			{
+				return false;
+			}
+
+			i.remove();
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return false if the packet is full for this tick and the item was not added.
+	 */
+	private boolean appendPendingItem( final PacketMEInventoryUpdate piu, final IItemList<IAEItemStack> monitorCache, final IAEItemStack is, final int budget ) throws IOException
+	{
+		if( !piu.isEmpty() && piu.getLength() >= budget )
+		{
+			return false;
+		}
+
+		IAEItemStack send = monitorCache.findPrecise( is );
+		if( send == null )
+		{
+			send = is.copy();
+			send.setStackSize( 0 );
+		}
+
+		try
+		{
+			piu.appendItem( send );
+		}
+		catch( final BufferOverflowException boe )
+		{
+			return false;
+		}
+
+		return true;
+	}
+
+	public void setVisibleItems( final List<IAEItemStack> visible )
+	{
+		final IItemList<IAEItemStack> list = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+
+		for( final IAEItemStack is : visible )
+		{
+			list.add( is.copy().setStackSize( 1 ) );
+		}
+
+		this.visibleItems = list;
+	}
+
+	/**
+	 * @return the uncompressed bytes of item updates this terminal sent.
+	 */
+	public long getBytesSent()
+	{
+		return this.bytesSent;
+	}
+
+	public long getPacketsSent()
+	{
+		return this.packetsSent;
+	}
+
 	protected void updatePowerStatus()
 	{
 		try
@@ -332,9 +447,12 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 	{
 		if( Platform.isServer() && c instanceof EntityPlayer && this.monitor != null )
 		{
+			// the dictionary mirrors the state of a single client
+			this.itemDictionary = AEConfig.instance().isTerminalItemDictionary() && this.listeners.size() == 1 ? new ItemDictionary() : null;
+
 			try
 			{
-				PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
+				PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( (byte) 0, this.itemDictionary );
 				final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
 
 				for( final IAEItemStack send : monitorCache )
@@ -345,13 +463,17 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 					}
 					catch( final BufferOverflowException boe )
 					{
+						this.bytesSent += piu.getLength();
+						this.packetsSent++;
 						NetworkHandler.instance().sendTo( piu, (EntityPlayerMP) c );
 
-						piu = new PacketMEInventoryUpdate();
+						piu = new PacketMEInventoryUpdate( (byte) 0, this.itemDictionary );
 						piu.appendItem( send );
 					}
 				}
 
+				this.bytesSent += piu.getLength();
+				this.packetsSent++;
 				NetworkHandler.instance().sendTo( piu, (EntityPlayerMP) c );
 			}
 			catch( final IOException e )
@@ -48,6 +48,7 @@ import appeng.api.util.IConfigurableObject;
 import appeng.core.features.AEFeature;
 import appeng.core.settings.TickRates;
 import appeng.items.materials.MaterialType;
+import appeng.parts.p2p.ItemFanOutMode;
 import appeng.util.ConfigManager;
 import appeng.util.IConfigManagerHost;
 import appeng.util.Platform;
@@ -87,6 +88,14 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 	private boolean useColoredCraftingStatus;
 	private boolean disableColoredCableRecipesInJEI = true;
 	private int craftingCalculationTimePerTick = 5;
+	private int craftingCalculationThreads = 4;
+	private boolean craftingCalculationOffThread = false;
+	private int craftingCalculationTimeBudget = 10000;
+	private int storageListConsistencyCheckInterval = 1200;
+	private boolean terminalItemDictionary = true;
+	private int terminalUpdateInterval = 5;
+	private int terminalBytesPerTick = 64 * 1024;
+	private ItemFanOutMode p2pItemFanOut = ItemFanOutMode.ROUND_ROBIN;
 	private PowerUnits selectedPowerUnit = PowerUnits.AE;
 
 	// GUI Buttons
@@ -158,6 +167,18 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 		this.removeCrashingItemsOnLoad = this.get( "general", "removeCrashingItemsOnLoad", false,
 				"Will auto-remove items that crash when being loaded from storage. This will destroy those items instead of crashing the game!" ).getBoolean();
 
+		this.terminalItemDictionary = this.get( "general", "terminalItemDictionary", this.terminalItemDictionary,
+				"Send each item type only once per opened terminal and refer to it by id afterwards, disable to send the full item with every update." )
+				.getBoolean( this.terminalItemDictionary );
+
+		this.terminalUpdateInterval = this.get( "general", "terminalUpdateInterval", this.terminalUpdateInterval,
+				"Ticks during which changes of items not shown in an open terminal are collected before they are sent." )
+				.getInt( this.terminalUpdateInterval );
+
+		this.terminalBytesPerTick = this.get( "general", "terminalBytesPerTick", this.terminalBytesPerTick,
+				"Uncompressed bytes of item updates an open terminal may send to its player per tick, the rest is sent in the following ticks." )
+				.getInt( this.terminalBytesPerTick );
+
 		this.setCategoryComment( "GrindStone",
 				"Creates recipe of the following pattern automatically: '1 oreTYPE => 2 dustTYPE' and '(1 ingotTYPE or 1 crystalTYPE or 1 gemTYPE) => 1 dustTYPE'" );
 		this.grinderOres = this.get( "GrindStone", "grinderOres", this.grinderOres, "The list of types to handle. Specify without a prefix like ore or dust." )
@@ -202,6 +223,10 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 				.getDouble(
 						this.wirelessTerminalDrainMultiplier );
 
+		this.storageListConsistencyCheckInterval = this.get( "storage", "storageListConsistencyCheckInterval", this.storageListConsistencyCheckInterval,
+				"Ticks between comparing the incrementally updated network storage list against the cells, 0 to disable." )
+				.getInt( this.storageListConsistencyCheckInterval );
+
 		this.formationPlaneEntityLimit = this.get( "automation", "formationPlaneEntityLimit", this.formationPlaneEntityLimit )
 				.getInt(
 						this.formationPlaneEntityLimit );
@@ -268,11 +293,30 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 			this.spatialPowerExponent = this.get( "spatialio", "spatialPowerExponent", this.spatialPowerExponent ).getDouble( this.spatialPowerExponent );
 		}
 
+		try
+		{
+			this.p2pItemFanOut = ItemFanOutMode.valueOf( this.get( "general", "p2pItemFanOut", this.p2pItemFanOut.name(),
+					"How item P2P tunnels spread items over their outputs. " + this.getListComment( this.p2pItemFanOut ) ).getString() );
+		}
+		catch( final IllegalArgumentException e )
+		{
+			this.p2pItemFanOut = ItemFanOutMode.ROUND_ROBIN;
+		}
+
 		if( this.isFeatureEnabled( AEFeature.CRAFTING_CPU ) )
 		{
 			this.craftingCalculationTimePerTick = this.get( "craftingCPU", "craftingCalculationTimePerTick", this.craftingCalculationTimePerTick )
 					.getInt(
 							this.craftingCalculationTimePerTick );
+			this.craftingCalculationThreads = this.get( "craftingCPU", "craftingCalculationThreads", this.craftingCalculationThreads,
+					"Number of crafting calculations which can run at the same time, further requests wait for a free thread." )
+					.getInt( this.craftingCalculationThreads );
+			this.craftingCalculationOffThread = this.get( "craftingCPU", "craftingCalculationOffThread", this.craftingCalculationOffThread,
+					"Calculate crafting jobs against a snapshot of the network without pausing the server thread. Jobs with recipes that need the world fall back to the per tick calculation time." )
+					.getBoolean( this.craftingCalculationOffThread );
+			this.craftingCalculationTimeBudget = this.get( "craftingCPU", "craftingCalculationTimeBudget", this.craftingCalculationTimeBudget,
+					"Maximum time in milliseconds a crafting calculation may take when calculated off thread, 0 to disable." )
+					.getInt( this.craftingCalculationTimeBudget );
 		}
 
 		this.updatable = true;
@@ -615,6 +659,46 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 		return this.craftingCalculationTimePerTick;
 	}
 
+	public int getCraftingCalculationThreads()
+	{
+		return this.craftingCalculationThreads;
+	}
+
+	public boolean isCraftingCalculationOffThread()
+	{
+		return this.craftingCalculationOffThread;
+	}
+
+	public int getCraftingCalculationTimeBudget()
+	{
+		return this.craftingCalculationTimeBudget;
+	}
+
+	public int getStorageListConsistencyCheckInterval()
+	{
+		return this.storageListConsistencyCheckInterval;
+	}
+
+	public boolean isTerminalItemDictionary()
+	{
+		return this.terminalItemDictionary;
+	}
+
+	public int getTerminalUpdateInterval()
+	{
+		return this.terminalUpdateInterval;
+	}
+
+	public int getTerminalBytesPerTick()
+	{
+		return this.terminalBytesPerTick;
+	}
+
+	public ItemFanOutMode getP2PItemFanOut()
+	{
+		return this.p2pItemFanOut;
+	}
+
 	public PowerUnits getSelectedPowerUnit()
 	{
 		return this.selectedPowerUnit;
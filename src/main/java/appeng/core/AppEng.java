@@ -58,6 +58,7 @@ import appeng.core.stats.AdvancementTriggers;
 import appeng.core.sync.GuiBridge;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.worlddata.WorldData;
+import appeng.helpers.PatternHelper;
 import appeng.hooks.TickHandler;
 import appeng.integration.IntegrationRegistry;
 import appeng.integration.IntegrationType;
@@ -257,6 +258,7 @@ public final class AppEng
 	private void serverAboutToStart( final FMLServerAboutToStartEvent evt )
 	{
 		WorldData.onServerAboutToStart( evt.getServer() );
+		PatternHelper.invalidateCache();
 	}
 
 	@EventHandler
@@ -270,6 +272,7 @@ public final class AppEng
 	{
 		WorldData.instance().onServerStoppped();
 		TickHandler.INSTANCE.shutdown();
+		PatternHelper.invalidateCache();
 	}
 
 	@EventHandler
@@ -101,6 +101,7 @@ import appeng.core.stats.PartItemPredicate;
 import appeng.core.stats.Stats;
 import appeng.core.worlddata.SpatialDimensionManager;
 import appeng.fluids.registries.BasicFluidCellGuiHandler;
+import appeng.helpers.PatternHelper;
 import appeng.hooks.TickHandler;
 import appeng.items.materials.ItemMaterial;
 import appeng.items.parts.ItemFacade;
@@ -109,6 +110,7 @@ import appeng.loot.ChestLoot;
 import appeng.me.cache.CraftingGridCache;
 import appeng.me.cache.EnergyGridCache;
 import appeng.me.cache.GridStorageCache;
+import appeng.me.cache.InterfaceTerminalCache;
 import appeng.me.cache.P2PCache;
 import appeng.me.cache.PathGridCache;
 import appeng.me.cache.SecurityCache;
@@ -236,6 +238,7 @@ final class Registration
 		gcr.registerGridCache( ISpatialCache.class, SpatialPylonCache.class );
 		gcr.registerGridCache( ISecurityGrid.class, SecurityCache.class );
 		gcr.registerGridCache( ICraftingGrid.class, CraftingGridCache.class );
+		gcr.registerGridCache( InterfaceTerminalCache.class, InterfaceTerminalCache.class );
 
 		registries.cell().addCellHandler( new BasicCellHandler() );
 		registries.cell().addCellHandler( new CreativeCellHandler() );
@@ -321,6 +324,8 @@ final class Registration
 
 		final AERecipeLoader ldr = new AERecipeLoader();
 		ldr.loadProcessingRecipes();
+
+		PatternHelper.invalidateCache();
 	}
 
 	@SubscribeEvent
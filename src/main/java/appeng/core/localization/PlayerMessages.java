@@ -41,7 +41,8 @@ public enum PlayerMessages
 	DeviceNotWirelessTerminal,
 	DeviceNotLinked,
 	StationCanNotBeLocated,
-	SettingCleared,;
+	SettingCleared,
+	CraftingCalculationTimedOut,;
 
 	public ITextComponent get()
 	{
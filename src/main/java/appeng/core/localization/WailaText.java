@@ -34,6 +34,7 @@ public enum WailaText
 	P2PInputOneOutput,
 	P2PInputManyOutputs,
 	P2POutput,
+	P2PThroughput,
 
 	Locked,
 	Unlocked,
@@ -49,6 +49,7 @@ import appeng.core.sync.packets.PacketSwapSlots;
 import appeng.core.sync.packets.PacketSwitchGuis;
 import appeng.core.sync.packets.PacketTargetFluidStack;
 import appeng.core.sync.packets.PacketTargetItemStack;
+import appeng.core.sync.packets.PacketTerminalView;
 import appeng.core.sync.packets.PacketTransitionEffect;
 import appeng.core.sync.packets.PacketValueConfig;
 
@@ -107,7 +108,9 @@ public class AppEngPacketHandlerBase
 
 		PACKET_PAINTED_ENTITY( PacketPaintedEntity.class ),
 
-		PACKET_FLUID_TANK( PacketFluidSlot.class );
+		PACKET_FLUID_TANK( PacketFluidSlot.class ),
+
+		PACKET_TERMINAL_VIEW( PacketTerminalView.class );
 
 		private final Class<? extends AppEngPacket> packetClass;
 		private final Constructor<? extends AppEngPacket> packetConstructor;
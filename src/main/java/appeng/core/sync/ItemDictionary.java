@@ -0,0 +1,217 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+
+package appeng.core.sync;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Assigns ids to the item types sent over one connection, so that only the first update of an item contains its
+ * definition and later updates only its amounts.
+ *
+ * The server keeps one dictionary per opened terminal, the client a single one which is reset by the first packet of
+ * a new terminal.
+ */
+public final class ItemDictionary
+{
+
+	private static final int MAX_ENTRIES = 1 << 18;
+
+	private static final int KIND_INLINE = 0;
+	private static final int KIND_DEFINE = 1;
+	private static final int KIND_REFERENCE = 2;
+	private static final int KIND_BITS = 2;
+	private static final int KIND_MASK = 0x3;
+
+	private static final int FLAG_CRAFTABLE = 0x1;
+	private static final int FLAG_REQUESTABLE = 0x2;
+
+	// server side
+	private final Map<IAEItemStack, Integer> ids = new HashMap<>();
+	// client side
+	private final List<IAEItemStack> definitions = new ArrayList<>();
+
+	private boolean opened = false;
+
+	/**
+	 * @return true for the first call, the packet using the dictionary first has to reset the remote one.
+	 */
+	public boolean open()
+	{
+		if( this.opened )
+		{
+			return false;
+		}
+
+		this.opened = true;
+		return true;
+	}
+
+	public void reset()
+	{
+		this.ids.clear();
+		this.definitions.clear();
+	}
+
+	/**
+	 * Writes the stack, defining it if this is the first time it is sent. The caller has to {@link #commit} the stack
+	 * once the written bytes are actually part of a packet.
+	 *
+	 * @return true if the stack has to be committed
+	 */
+	public boolean write( final IAEItemStack is, final ByteBuf out )
+	{
+		final Integer id = this.ids.get( is );
+
+		if( id != null )
+		{
+			int flags = is.isCraftable() ? FLAG_CRAFTABLE : 0;
+			if( is.getCountRequestable() != 0 )
+			{
+				flags |= FLAG_REQUESTABLE;
+			}
+
+			writeVarLong( out, ( (long) id << KIND_BITS ) | KIND_REFERENCE );
+			out.writeByte( flags );
+			writeVarLong( out, zigZag( is.getStackSize() ) );
+
+			if( ( flags & FLAG_REQUESTABLE ) != 0 )
+			{
+				writeVarLong( out, zigZag( is.getCountRequestable() ) );
+			}
+
+			return false;
+		}
+
+		if( this.ids.size() >= MAX_ENTRIES )
+		{
+			writeVarLong( out, KIND_INLINE );
+			is.writeToPacket( out );
+			return false;
+		}
+
+		writeVarLong( out, ( (long) this.ids.size() << KIND_BITS ) | KIND_DEFINE );
+		is.writeToPacket( out );
+		return true;
+	}
+
+	public void commit( final IAEItemStack is )
+	{
+		this.ids.put( is.copy(), this.ids.size() );
+	}
+
+	public IAEItemStack read( final ByteBuf in ) throws IOException
+	{
+		final long header = readVarLong( in );
+		final int kind = (int) ( header & KIND_MASK );
+		final long id = header >>> KIND_BITS;
+
+		switch( kind )
+		{
+			case KIND_INLINE:
+				return AEItemStack.fromPacket( in );
+
+			case KIND_DEFINE:
+				final IAEItemStack defined = AEItemStack.fromPacket( in );
+
+				if( id != this.definitions.size() )
+				{
+					throw new IOException( "Unexpected item id " + id + ", expected " + this.definitions.size() );
+				}
+
+				this.definitions.add( defined == null ? null : defined.copy() );
+				return defined;
+
+			case KIND_REFERENCE:
+				if( id >= this.definitions.size() )
+				{
+					throw new IOException( "Unknown item id " + id );
+				}
+
+				final int flags = in.readUnsignedByte();
+				final long stackSize = unZigZag( readVarLong( in ) );
+				final long countRequestable = ( flags & FLAG_REQUESTABLE ) != 0 ? unZigZag( readVarLong( in ) ) : 0;
+
+				final IAEItemStack definition = this.definitions.get( (int) id );
+				if( definition == null )
+				{
+					return null;
+				}
+
+				final IAEItemStack is = definition.copy();
+				is.setStackSize( stackSize );
+				is.setCountRequestable( countRequestable );
+				is.setCraftable( ( flags & FLAG_CRAFTABLE ) != 0 );
+				return is;
+
+			default:
+				throw new IOException( "Invalid item entry " + kind );
+		}
+	}
+
+	static void writeVarLong( final ByteBuf out, long value )
+	{
+		while( ( value & ~0x7FL ) != 0 )
+		{
+			out.writeByte( (int) ( value & 0x7F ) | 0x80 );
+			value >>>= 7;
+		}
+
+		out.writeByte( (int) value );
+	}
+
+	static long readVarLong( final ByteBuf in ) throws IOException
+	{
+		long value = 0;
+
+		for( int shift = 0; shift < 64; shift += 7 )
+		{
+			final byte b = in.readByte();
+			value |= (long) ( b & 0x7F ) << shift;
+
+			if( ( b & 0x80 ) == 0 )
+			{
+				return value;
+			}
+		}
+
+		throw new IOException( "VarLong too long" );
+	}
+
+	private static long zigZag( final long value )
+	{
+		return ( value << 1 ) ^ ( value >> 63 );
+	}
+
+	private static long unZigZag( final long value )
+	{
+		return ( value >>> 1 ) ^ -( value & 1 );
+	}
+}
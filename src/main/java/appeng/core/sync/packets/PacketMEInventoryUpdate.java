@@ -20,13 +20,12 @@ package appeng.core.sync.packets;
 
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.BufferOverflowException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import javax.annotation.Nullable;
 
@@ -47,6 +46,7 @@ import appeng.client.gui.implementations.GuiMEMonitorable;
 import appeng.client.gui.implementations.GuiNetworkStatus;
 import appeng.core.AELog;
 import appeng.core.sync.AppEngPacket;
+import appeng.core.sync.ItemDictionary;
 import appeng.core.sync.network.INetworkInfo;
 import appeng.util.item.AEItemStack;
 
@@ -55,8 +55,18 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 {
 	private static final int UNCOMPRESSED_PACKET_BYTE_LIMIT = 16 * 1024 * 1024;
 	private static final int OPERATION_BYTE_LIMIT = 2 * 1024;
-	private static final int TEMP_BUFFER_SIZE = 1024;
-	private static final int STREAM_MASK = 0xff;
+	private static final int TEMP_BUFFER_SIZE = 8 * 1024;
+
+	private static final byte FORMAT_INLINE = 0;
+	private static final byte FORMAT_DICTIONARY = 1;
+	private static final byte FORMAT_DICTIONARY_RESET = 2;
+
+	// the client receives all terminal updates through one dictionary
+	private static final ItemDictionary CLIENT_DICTIONARY = new ItemDictionary();
+
+	// packets are built by the server thread, the deflater and its buffer are reused for all of them
+	private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial( Deflater::new );
+	private static final ThreadLocal<byte[]> DEFLATE_BUFFER = ThreadLocal.withInitial( () -> new byte[TEMP_BUFFER_SIZE] );
 
 	// input.
 	@Nullable
@@ -65,58 +75,91 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	private final byte ref;
 
 	@Nullable
-	private final ByteBuf data;
+	private final ByteBuf uncompressed;
+	@Nullable
+	private final ByteBuf scratch;
 	@Nullable
-	private final GZIPOutputStream compressFrame;
+	private final ItemDictionary dictionary;
 
-	private int writtenBytes = 0;
+	private byte format = FORMAT_INLINE;
 	private boolean empty = true;
 
 	// automatic.
 	public PacketMEInventoryUpdate( final ByteBuf stream ) throws IOException
 	{
-		this.data = null;
-		this.compressFrame = null;
+		this.uncompressed = null;
+		this.scratch = null;
+		this.dictionary = null;
 		this.list = new ArrayList<>();
 		this.ref = stream.readByte();
+		this.format = stream.readByte();
+
+		final int length = stream.readInt();
+		if( length < 0 || length > UNCOMPRESSED_PACKET_BYTE_LIMIT )
+		{
+			throw new IOException( "Invalid inventory update length " + length );
+		}
 
-		// int originalBytes = stream.readableBytes();
+		final byte[] compressed = new byte[stream.readableBytes()];
+		stream.readBytes( compressed );
 
-		try( GZIPInputStream gzReader = new GZIPInputStream( new InputStream()
+		final byte[] raw = new byte[length];
+		final Inflater inflater = new Inflater();
+
+		try
 		{
-			@Override
-			public int read() throws IOException
+			inflater.setInput( compressed );
+
+			int read = 0;
+			while( read < length && !inflater.finished() )
 			{
-				if( stream.readableBytes() <= 0 )
+				final int bytes = inflater.inflate( raw, read, length - read );
+
+				if( bytes == 0 && ( inflater.needsInput() || inflater.needsDictionary() ) )
 				{
-					return -1;
+					break;
 				}
 
-				return stream.readByte() & STREAM_MASK;
+				read += bytes;
 			}
-		} ) )
-		{
-			final ByteBuf uncompressed = Unpooled.buffer( stream.readableBytes() );
-			final byte[] tmp = new byte[TEMP_BUFFER_SIZE];
 
-			while( gzReader.available() != 0 )
+			if( read != length )
 			{
-				final int bytes = gzReader.read( tmp );
+				throw new IOException( "Truncated inventory update" );
+			}
+		}
+		catch( final DataFormatException e )
+		{
+			throw new IOException( e );
+		}
+		finally
+		{
+			inflater.end();
+		}
 
-				if( bytes > 0 )
-				{
-					uncompressed.writeBytes( tmp, 0, bytes );
-				}
+		final ByteBuf data = Unpooled.wrappedBuffer( raw );
+
+		if( this.format == FORMAT_INLINE )
+		{
+			while( data.readableBytes() > 0 )
+			{
+				this.list.add( AEItemStack.fromPacket( data ) );
+			}
+		}
+		else
+		{
+			if( this.format == FORMAT_DICTIONARY_RESET )
+			{
+				CLIENT_DICTIONARY.reset();
 			}
 
-			while( uncompressed.readableBytes() > 0 )
+			while( data.readableBytes() > 0 )
 			{
-				this.list.add( AEItemStack.fromPacket( uncompressed ) );
+				this.list.add( CLIENT_DICTIONARY.read( data ) );
 			}
 		}
 
 		this.empty = this.list.isEmpty();
-
 	}
 
 	// api
@@ -127,24 +170,26 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 	// api
 	public PacketMEInventoryUpdate( final byte ref ) throws IOException
+	{
+		this( ref, null );
+	}
+
+	/**
+	 * @param dictionary the dictionary of the receiving connection, or null to send every item with its definition.
+	 */
+	public PacketMEInventoryUpdate( final byte ref, @Nullable final ItemDictionary dictionary ) throws IOException
 	{
 		this.ref = ref;
-		this.data = Unpooled.buffer( OPERATION_BYTE_LIMIT );
-		this.data.writeInt( this.getPacketID() );
-		this.data.writeByte( this.ref );
+		this.dictionary = dictionary;
+		this.uncompressed = Unpooled.buffer( OPERATION_BYTE_LIMIT );
+		this.scratch = Unpooled.buffer( OPERATION_BYTE_LIMIT );
+		this.list = null;
 
-		this.compressFrame = new GZIPOutputStream( new OutputStream()
+		if( dictionary != null )
 		{
-			@Override
-			public void write( final int value ) throws IOException
-			{
-				PacketMEInventoryUpdate.this.data.writeByte( value );
-			}
-		} );
-
-		this.list = null;
+			this.format = FORMAT_DICTIONARY;
+		}
 	}
-
 	@Override
 	@SideOnly( Side.CLIENT )
 	public void clientPacketData( final INetworkInfo network, final AppEngPacket packet, final EntityPlayer player )
@@ -176,42 +221,67 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	@Override
 	public FMLProxyPacket getProxy()
 	{
-		try
-		{
-			this.compressFrame.close();
+		final ByteBuf data = Unpooled.buffer( OPERATION_BYTE_LIMIT + this.uncompressed.readableBytes() / 2 );
+		data.writeInt( this.getPacketID() );
+		data.writeByte( this.ref );
+		data.writeByte( this.format );
+		data.writeInt( this.uncompressed.readableBytes() );
 
-			this.configureWrite( this.data );
-			return super.getProxy();
-		}
-		catch( final IOException e )
+		final Deflater deflater = DEFLATER.get();
+		final byte[] buffer = DEFLATE_BUFFER.get();
+
+		deflater.reset();
+		deflater.setInput( this.uncompressed.array(), this.uncompressed.arrayOffset() + this.uncompressed.readerIndex(), this.uncompressed.readableBytes() );
+		deflater.finish();
+
+		while( !deflater.finished() )
 		{
-			AELog.debug( e );
+			final int bytes = deflater.deflate( buffer );
+			data.writeBytes( buffer, 0, bytes );
 		}
 
-		return null;
+		this.configureWrite( data );
+		return super.getProxy();
 	}
 
 	public void appendItem( final IAEItemStack is ) throws IOException, BufferOverflowException
 	{
-		final ByteBuf tmp = Unpooled.buffer( OPERATION_BYTE_LIMIT );
-		is.writeToPacket( tmp );
+		final ByteBuf tmp = this.scratch;
+		tmp.clear();
 
-		this.compressFrame.flush();
-		if( this.writtenBytes + tmp.readableBytes() > UNCOMPRESSED_PACKET_BYTE_LIMIT )
+		final boolean define = this.dictionary != null && this.dictionary.write( is, tmp );
+		if( this.dictionary == null )
+		{
+			is.writeToPacket( tmp );
+		}
+
+		if( this.uncompressed.readableBytes() + tmp.readableBytes() > UNCOMPRESSED_PACKET_BYTE_LIMIT )
 		{
 			throw new BufferOverflowException();
 		}
 		else
 		{
-			this.writtenBytes += tmp.readableBytes();
-			this.compressFrame.write( tmp.array(), 0, tmp.readableBytes() );
+			this.uncompressed.writeBytes( tmp );
 			this.empty = false;
+
+			if( this.dictionary != null )
+			{
+				if( define )
+				{
+					this.dictionary.commit( is );
+				}
+
+				if( this.dictionary.open() )
+				{
+					this.format = FORMAT_DICTIONARY_RESET;
+				}
+			}
 		}
 	}
 
 	public int getLength()
 	{
-		return this.data.readableBytes();
+		return this.uncompressed.readableBytes();
 	}
 
 	public boolean isEmpty()
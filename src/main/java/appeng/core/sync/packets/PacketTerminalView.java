@@ -0,0 +1,89 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+
+package appeng.core.sync.packets;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.entity.player.EntityPlayer;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.container.implementations.ContainerMEMonitorable;
+import appeng.core.sync.AppEngPacket;
+import appeng.core.sync.network.INetworkInfo;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Tells the server which items are shown on the current page of a terminal, so their updates are sent first.
+ */
+public class PacketTerminalView extends AppEngPacket
+{
+	private static final int MAX_ITEMS = 256;
+
+	private final List<IAEItemStack> visible;
+
+	// automatic.
+	public PacketTerminalView( final ByteBuf stream )
+	{
+		final int count = Math.min( stream.readUnsignedShort(), MAX_ITEMS );
+		this.visible = new ArrayList<>( count );
+
+		for( int x = 0; x < count; x++ )
+		{
+			final IAEItemStack is = AEItemStack.fromPacket( stream );
+			if( is != null )
+			{
+				this.visible.add( is );
+			}
+		}
+	}
+
+	// api
+	public PacketTerminalView( final List<IAEItemStack> visible )
+	{
+		final int count = Math.min( visible.size(), MAX_ITEMS );
+		this.visible = visible;
+
+		final ByteBuf data = Unpooled.buffer();
+		data.writeInt( this.getPacketID() );
+		data.writeShort( count );
+
+		for( int x = 0; x < count; x++ )
+		{
+			visible.get( x ).writeToPacket( data );
+		}
+
+		this.configureWrite( data );
+	}
+
+	@Override
+	public void serverPacketData( final INetworkInfo manager, final AppEngPacket packet, final EntityPlayer player )
+	{
+		if( player.openContainer instanceof ContainerMEMonitorable )
+		{
+			( (ContainerMEMonitorable) player.openContainer ).setVisibleItems( this.visible );
+		}
+	}
+}
@@ -0,0 +1,349 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+
+package appeng.core.worlddata;
+
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+
+import appeng.core.AELog;
+
+
+/**
+ * Append only binary store for the data of grid storages.
+ *
+ * Every change appends a record, the offset of the latest record of each id is kept in memory, so the data of a grid
+ * storage is only read when it is requested. Once most of the file consists of outdated records, it is rewritten
+ * with the current ones.
+ */
+final class GridStorageFile
+{
+	private static final int MAGIC = 0x41453247;
+	// has to change with every new record type, readers reject other versions instead of dropping records they do not know.
+	private static final int VERSION = 1;
+	private static final int FILE_HEADER = 4 + 4;
+
+	private static final byte RECORD_DATA = 1;
+	private static final byte RECORD_REMOVED = 2;
+	private static final byte RECORD_COUNTER = 3;
+	private static final int RECORD_HEADER = 1 + 8 + 4;
+
+	private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+	@Nonnull
+	private final File file;
+	private final Map<Long, Record> index = new HashMap<>();
+
+	private RandomAccessFile access;
+	private long length;
+	private long liveBytes;
+	private long counter;
+
+	GridStorageFile( @Nonnull final File file )
+	{
+		Preconditions.checkNotNull( file );
+
+		this.file = file;
+	}
+
+	boolean exists()
+	{
+		return this.file.isFile();
+	}
+
+	/**
+	 * Opens the file, creating it if necessary, and indexes its records. An incomplete or invalid record ends the file,
+	 * it and everything after it is dropped after the original file was copied aside. Files of another version are
+	 * rejected.
+	 */
+	void open() throws IOException
+	{
+		this.index.clear();
+		this.liveBytes = 0;
+		this.counter = 0;
+
+		if( !this.file.isFile() )
+		{
+			try( RandomAccessFile out = new RandomAccessFile( this.file, "rw" ) )
+			{
+				out.writeInt( MAGIC );
+				out.writeInt( VERSION );
+			}
+		}
+
+		final long fileLength = this.file.length();
+		long offset = FILE_HEADER;
+
+		try( DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( this.file ) ) ) )
+		{
+			if( in.readInt() != MAGIC || in.readInt() != VERSION )
+			{
+				throw new IOException( "Unknown grid storage file format: " + this.file );
+			}
+
+			while( true )
+			{
+				final byte type;
+				try
+				{
+					type = in.readByte();
+				}
+				catch( final EOFException e )
+				{
+					break;
+				}
+
+				if( type != RECORD_DATA && type != RECORD_REMOVED && type != RECORD_COUNTER )
+				{
+					break;
+				}
+
+				final long id;
+				final int size;
+				try
+				{
+					id = in.readLong();
+					size = in.readInt();
+
+					// skipping does not detect the end of the file
+					if( size < 0 || offset + RECORD_HEADER + size > fileLength || in.skipBytes( size ) != size )
+					{
+						break;
+					}
+				}
+				catch( final EOFException e )
+				{
+					break;
+				}
+
+				switch( type )
+				{
+					case RECORD_DATA:
+						this.putRecord( id, new Record( offset + RECORD_HEADER, size ) );
+						break;
+					case RECORD_REMOVED:
+						this.removeRecord( id );
+						break;
+					case RECORD_COUNTER:
+						this.counter = id;
+						break;
+				}
+
+				offset += RECORD_HEADER + size;
+			}
+		}
+
+		if( fileLength > offset )
+		{
+			final File corrupt = new File( this.file.getParentFile(), this.file.getName() + ".corrupt" );
+			Files.copy( this.file.toPath(), corrupt.toPath(), StandardCopyOption.REPLACE_EXISTING );
+
+			AELog.warn( "Incomplete or invalid grid storage record at offset %d in %s, dropped %d bytes. The original file was copied to %s.", offset, this.file, fileLength - offset, corrupt );
+		}
+
+		this.access = new RandomAccessFile( this.file, "rw" );
+
+		if( this.access.length() > offset )
+		{
+			this.access.setLength( offset );
+		}
+
+		this.length = offset;
+	}
+
+	long getCounter()
+	{
+		return this.counter;
+	}
+
+	void setCounter( final long counter ) throws IOException
+	{
+		if( this.counter != counter )
+		{
+			this.append( RECORD_COUNTER, counter, null );
+			this.counter = counter;
+		}
+	}
+
+	@Nullable
+	byte[] read( final long id ) throws IOException
+	{
+		final Record record = this.index.get( id );
+
+		if( record == null )
+		{
+			return null;
+		}
+
+		final byte[] data = new byte[record.size];
+		this.access.seek( record.offset );
+		this.access.readFully( data );
+		return data;
+	}
+
+	void write( final long id, @Nonnull final byte[] data ) throws IOException
+	{
+		final long offset = this.append( RECORD_DATA, id, data );
+		this.putRecord( id, new Record( offset + RECORD_HEADER, data.length ) );
+	}
+
+	void remove( final long id ) throws IOException
+	{
+		if( this.index.containsKey( id ) )
+		{
+			this.append( RECORD_REMOVED, id, null );
+			this.removeRecord( id );
+		}
+	}
+
+	/**
+	 * Rewrites the file with only the current records, once outdated records make up most of it.
+	 */
+	void compactIfNeeded() throws IOException
+	{
+		final long wasted = this.length - FILE_HEADER - this.liveBytes;
+
+		if( wasted > MIN_COMPACT_BYTES && wasted > this.liveBytes )
+		{
+			this.compact();
+		}
+	}
+
+	void close() throws IOException
+	{
+		if( this.access != null )
+		{
+			this.access.getFD().sync();
+			this.access.close();
+			this.access = null;
+		}
+	}
+
+	private void compact() throws IOException
+	{
+		final File temp = new File( this.file.getParentFile(), this.file.getName() + ".tmp" );
+
+		try( RandomAccessFile out = new RandomAccessFile( temp, "rw" ) )
+		{
+			out.setLength( 0 );
+			out.writeInt( MAGIC );
+			out.writeInt( VERSION );
+			out.write( record( RECORD_COUNTER, this.counter, null ) );
+
+			for( final Map.Entry<Long, Record> entry : this.index.entrySet() )
+			{
+				out.write( record( RECORD_DATA, entry.getKey(), this.read( entry.getKey() ) ) );
+			}
+
+			out.getFD().sync();
+		}
+
+		this.access.close();
+		replace( temp, this.file );
+		this.open();
+	}
+
+	/**
+	 * Replaces a file with another one, atomically where the file system supports it.
+	 */
+	static void replace( final File source, final File target ) throws IOException
+	{
+		try
+		{
+			Files.move( source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch( final AtomicMoveNotSupportedException e )
+		{
+			Files.move( source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING );
+		}
+	}
+
+	private long append( final byte type, final long id, @Nullable final byte[] data ) throws IOException
+	{
+		final long offset = this.length;
+
+		this.access.seek( offset );
+		this.access.write( record( type, id, data ) );
+		this.length = this.access.getFilePointer();
+
+		return offset;
+	}
+
+	private static byte[] record( final byte type, final long id, @Nullable final byte[] data )
+	{
+		final int size = data == null ? 0 : data.length;
+		final ByteBuffer buffer = ByteBuffer.allocate( RECORD_HEADER + size );
+
+		buffer.put( type );
+		buffer.putLong( id );
+		buffer.putInt( size );
+		if( data != null )
+		{
+			buffer.put( data );
+		}
+
+		return buffer.array();
+	}
+
+	private void putRecord( final long id, final Record record )
+	{
+		this.removeRecord( id );
+		this.index.put( id, record );
+		this.liveBytes += RECORD_HEADER + record.size;
+	}
+
+	private void removeRecord( final long id )
+	{
+		final Record old = this.index.remove( id );
+
+		if( old != null )
+		{
+			this.liveBytes -= RECORD_HEADER + old.size;
+		}
+	}
+
+	private static final class Record
+	{
+		private final long offset;
+		private final int size;
+
+		private Record( final long offset, final int size )
+		{
+			this.offset = offset;
+			this.size = size;
+		}
+	}
+}
@@ -38,4 +38,9 @@ public interface IWorldSpawnData
 	boolean addNearByMeteorites( int dim, int chunkX, int chunkZ, NBTTagCompound newData );
 
 	Collection<NBTTagCompound> getNearByMeteorites( int dim, int chunkX, int chunkZ );
+
+	/**
+	 * Writes the changed spawn data of a dimension to disk.
+	 */
+	void save( int dim );
 }
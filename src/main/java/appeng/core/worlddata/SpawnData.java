@@ -25,6 +25,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nonnull;
 
@@ -41,61 +45,104 @@ import appeng.core.AELog;
  * @version rv3 - 30.05.2015
  * @since rv3 30.05.2015
  */
-final class SpawnData implements IWorldSpawnData
+final class SpawnData implements IWorldSpawnData, IOnWorldStoppable
 {
+	private static final int MAX_CACHED_REGIONS = 256;
+	private static final int LOCK_STRIPES = 32;
+
 	@Nonnull
 	private final File spawnDirectory;
 	@Nonnull
 	private final MeteorDataNameEncoder encoder;
 
+	/**
+	 * Loaded region files by file name, in access order. Guarded by itself, the content of a region by the lock of
+	 * its stripe.
+	 */
+	private final LinkedHashMap<String, Region> regions = new LinkedHashMap<>( 16, 0.75f, true );
+	private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
 	public SpawnData( @Nonnull final File spawnDirectory )
 	{
 		Preconditions.checkNotNull( spawnDirectory );
 
 		this.spawnDirectory = spawnDirectory;
 		this.encoder = new MeteorDataNameEncoder( 4 );
+
+		for( int x = 0; x < LOCK_STRIPES; x++ )
+		{
+			this.locks[x] = new ReentrantLock();
+		}
 	}
 
 	@Override
 	public void setGenerated( final int dim, final int chunkX, final int chunkZ )
 	{
-		synchronized( SpawnData.class )
+		final String fileName = this.encoder.encode( dim, chunkX, chunkZ );
+		final ReentrantLock lock = this.getLock( fileName );
+
+		lock.lock();
+		try
 		{
-			final NBTTagCompound data = this.loadSpawnData( dim, chunkX, chunkZ );
+			final Region region = this.getRegion( fileName );
 
 			// edit.
-			data.setBoolean( chunkX + "," + chunkZ, true );
-
-			this.writeSpawnData( dim, chunkX, chunkZ, data );
+			region.data.setBoolean( chunkX + "," + chunkZ, true );
+			region.dirty = true;
+		}
+		finally
+		{
+			lock.unlock();
 		}
+
+		this.evictRegions();
 	}
 
 	@Override
 	public boolean hasGenerated( final int dim, final int chunkX, final int chunkZ )
 	{
-		synchronized( SpawnData.class )
+		final String fileName = this.encoder.encode( dim, chunkX, chunkZ );
+		final ReentrantLock lock = this.getLock( fileName );
+		final boolean generated;
+
+		lock.lock();
+		try
 		{
-			final NBTTagCompound data = this.loadSpawnData( dim, chunkX, chunkZ );
-			return data.getBoolean( chunkX + "," + chunkZ );
+			generated = this.getRegion( fileName ).data.getBoolean( chunkX + "," + chunkZ );
 		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		this.evictRegions();
+		return generated;
 	}
 
 	@Override
 	public boolean addNearByMeteorites( final int dim, final int chunkX, final int chunkZ, final NBTTagCompound newData )
 	{
-		synchronized( SpawnData.class )
+		final String fileName = this.encoder.encode( dim, chunkX, chunkZ );
+		final ReentrantLock lock = this.getLock( fileName );
+
+		lock.lock();
+		try
 		{
-			final NBTTagCompound data = this.loadSpawnData( dim, chunkX, chunkZ );
+			final Region region = this.getRegion( fileName );
 
 			// edit.
-			final int size = data.getInteger( "num" );
-			data.setTag( String.valueOf( size ), newData );
-			data.setInteger( "num", size + 1 );
-
-			this.writeSpawnData( dim, chunkX, chunkZ, data );
-
-			return true;
+			final int size = region.data.getInteger( "num" );
+			region.data.setTag( String.valueOf( size ), newData );
+			region.data.setInteger( "num", size + 1 );
+			region.dirty = true;
+		}
+		finally
+		{
+			lock.unlock();
 		}
+
+		this.evictRegions();
+		return true;
 	}
 
 	@Override
@@ -103,42 +150,179 @@ final class SpawnData implements IWorldSpawnData
 	{
 		final Collection<NBTTagCompound> ll = new ArrayList<>();
 
-		synchronized( SpawnData.class )
+		for( int x = -1; x <= 1; x++ )
 		{
-			for( int x = -1; x <= 1; x++ )
+			for( int z = -1; z <= 1; z++ )
 			{
-				for( int z = -1; z <= 1; z++ )
-				{
-					final int cx = x + ( chunkX >> 4 );
-					final int cz = z + ( chunkZ >> 4 );
+				final int cx = x + ( chunkX >> 4 );
+				final int cz = z + ( chunkZ >> 4 );
 
-					final NBTTagCompound data = this.loadSpawnData( dim, cx << 4, cz << 4 );
+				final String fileName = this.encoder.encode( dim, cx << 4, cz << 4 );
+				final ReentrantLock lock = this.getLock( fileName );
 
-					if( data != null )
+				lock.lock();
+				try
+				{
+					final NBTTagCompound data = this.getRegion( fileName ).data;
+
+					// the cached tags stay in the region, hand out copies.
+					final int size = data.getInteger( "num" );
+					for( int s = 0; s < size; s++ )
 					{
-						// edit.
-						final int size = data.getInteger( "num" );
-						for( int s = 0; s < size; s++ )
-						{
-							ll.add( data.getCompoundTag( String.valueOf( s ) ) );
-						}
+						ll.add( data.getCompoundTag( String.valueOf( s ) ).copy() );
 					}
 				}
+				finally
+				{
+					lock.unlock();
+				}
 			}
 		}
 
+		this.evictRegions();
 		return ll;
 	}
 
-	private NBTTagCompound loadSpawnData( final int dim, final int chunkX, final int chunkZ )
+	/**
+	 * Writes all changed regions of a dimension, called when the world is saved.
+	 */
+	@Override
+	public void save( final int dim )
+	{
+		final String prefix = dim + "_";
+
+		for( final String fileName : this.getRegionNames() )
+		{
+			if( fileName.startsWith( prefix ) )
+			{
+				this.saveRegion( fileName, false );
+			}
+		}
+	}
+
+	@Override
+	public void onWorldStop()
+	{
+		for( final String fileName : this.getRegionNames() )
+		{
+			this.saveRegion( fileName, true );
+		}
+	}
+
+	private List<String> getRegionNames()
+	{
+		synchronized( this.regions )
+		{
+			return new ArrayList<>( this.regions.keySet() );
+		}
+	}
+
+	private void saveRegion( final String fileName, final boolean unload )
+	{
+		final ReentrantLock lock = this.getLock( fileName );
+
+		lock.lock();
+		try
+		{
+			final Region region;
+			synchronized( this.regions )
+			{
+				region = unload ? this.regions.remove( fileName ) : this.regions.get( fileName );
+			}
+
+			if( region != null && region.dirty )
+			{
+				this.writeSpawnData( fileName, region.data );
+				region.dirty = false;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Unloads the least recently used regions above the limit. A region is only removed while holding its lock, so it
+	 * can not be read from disk again before it was written.
+	 */
+	private void evictRegions()
 	{
-		if( !Thread.holdsLock( SpawnData.class ) )
+		final List<String> eldest = new ArrayList<>();
+
+		synchronized( this.regions )
+		{
+			int excess = this.regions.size() - MAX_CACHED_REGIONS;
+			final Iterator<String> it = this.regions.keySet().iterator();
+
+			while( excess-- > 0 && it.hasNext() )
+			{
+				eldest.add( it.next() );
+			}
+		}
+
+		for( final String fileName : eldest )
+		{
+			final ReentrantLock lock = this.getLock( fileName );
+
+			// regions in use are evicted by a later call.
+			if( lock.tryLock() )
+			{
+				try
+				{
+					final Region region;
+					synchronized( this.regions )
+					{
+						region = this.regions.remove( fileName );
+					}
+
+					if( region != null && region.dirty )
+					{
+						this.writeSpawnData( fileName, region.data );
+					}
+				}
+				finally
+				{
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	private ReentrantLock getLock( final String fileName )
+	{
+		return this.locks[( fileName.hashCode() & 0x7fffffff ) % LOCK_STRIPES];
+	}
+
+	private Region getRegion( final String fileName )
+	{
+		if( !this.getLock( fileName ).isHeldByCurrentThread() )
 		{
 			throw new IllegalStateException( "Invalid Request" );
 		}
 
+		synchronized( this.regions )
+		{
+			final Region region = this.regions.get( fileName );
+			if( region != null )
+			{
+				return region;
+			}
+		}
+
+		final Region region = new Region( this.loadSpawnData( fileName ) );
+
+		synchronized( this.regions )
+		{
+			this.regions.put( fileName, region );
+		}
+
+		return region;
+	}
+
+	private NBTTagCompound loadSpawnData( final String fileName )
+	{
 		NBTTagCompound data = null;
-		final String fileName = this.encoder.encode( dim, chunkX, chunkZ );
 		final File file = new File( this.spawnDirectory, fileName );
 
 		if( file.isFile() )
@@ -178,14 +362,8 @@ final class SpawnData implements IWorldSpawnData
 		return data;
 	}
 
-	private void writeSpawnData( final int dim, final int chunkX, final int chunkZ, final NBTTagCompound data )
+	private void writeSpawnData( final String fileName, final NBTTagCompound data )
 	{
-		if( !Thread.holdsLock( SpawnData.class ) )
-		{
-			throw new IllegalStateException( "Invalid Request" );
-		}
-
-		final String fileName = this.encoder.encode( dim, chunkX, chunkZ );
 		final File file = new File( this.spawnDirectory, fileName );
 		FileOutputStream fileOutputStream = null;
 
@@ -213,4 +391,15 @@ final class SpawnData implements IWorldSpawnData
 			}
 		}
 	}
+
+	private static final class Region
+	{
+		private final NBTTagCompound data;
+		private boolean dirty;
+
+		private Region( final NBTTagCompound data )
+		{
+			this.data = data;
+		}
+	}
 }
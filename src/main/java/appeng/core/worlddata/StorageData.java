@@ -19,6 +19,8 @@
 package appeng.core.worlddata;
 
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.Map;
 import java.util.WeakHashMap;
@@ -51,14 +53,19 @@ final class StorageData implements IWorldGridStorageData, IOnWorldStartable, IOn
 
 	private final Map<GridStorageSearch, WeakReference<GridStorageSearch>> loadedStorage = new WeakHashMap<>( 10 );
 	private final Configuration config;
+	private final File gridStorageFile;
+	private final GridStorageFile storageFile;
 
 	private long lastGridStorage;
 
-	public StorageData( @Nonnull final Configuration settingsFile )
+	public StorageData( @Nonnull final Configuration settingsFile, @Nonnull final File gridStorageFile )
 	{
 		Preconditions.checkNotNull( settingsFile );
+		Preconditions.checkNotNull( gridStorageFile );
 
 		this.config = settingsFile;
+		this.gridStorageFile = gridStorageFile;
+		this.storageFile = new GridStorageFile( gridStorageFile );
 	}
 
 	/**
@@ -77,9 +84,17 @@ final class StorageData implements IWorldGridStorageData, IOnWorldStartable, IOn
 
 		if( result == null || result.get() == null )
 		{
-			final String id = String.valueOf( storageID );
-			final String data = this.config.get( "gridstorage", id, "" ).getString();
-			final GridStorage thisStorage = new GridStorage( data, storageID, gss );
+			byte[] data = null;
+			try
+			{
+				data = this.storageFile.read( storageID );
+			}
+			catch( final IOException e )
+			{
+				AELog.debug( e );
+			}
+
+			final GridStorage thisStorage = data == null ? new GridStorage( storageID, gss ) : new GridStorage( data, storageID, gss );
 			gss.setGridStorage( new WeakReference<>( thisStorage ) );
 			this.loadedStorage.put( gss, new WeakReference<>( gss ) );
 			return thisStorage;
@@ -109,15 +124,20 @@ final class StorageData implements IWorldGridStorageData, IOnWorldStartable, IOn
 	{
 		final long r = this.lastGridStorage;
 		this.lastGridStorage++;
-		this.config.get( "Counters", "lastGridStorage", this.lastGridStorage ).set( Long.toString( this.lastGridStorage ) );
 		return r;
 	}
 
 	@Override
 	public void destroyGridStorage( final long id )
 	{
-		final String stringID = String.valueOf( id );
-		this.config.getCategory( "gridstorage" ).remove( stringID );
+		try
+		{
+			this.storageFile.remove( id );
+		}
+		catch( final IOException e )
+		{
+			AELog.debug( e );
+		}
 	}
 
 	@Override
@@ -132,32 +152,121 @@ final class StorageData implements IWorldGridStorageData, IOnWorldStartable, IOn
 	@Override
 	public void onWorldStart()
 	{
-		final String lastString = this.config.get( LAST_GRID_STORAGE_CATEGORY, LAST_GRID_STORAGE_KEY, LAST_GRID_STORAGE_DEFAULT ).getString();
+		try
+		{
+			if( !this.storageFile.exists() )
+			{
+				this.migrateConfig();
+			}
+
+			this.storageFile.open();
+		}
+		catch( final IOException e )
+		{
+			throw new IllegalStateException( "Failed to open the grid storage file.", e );
+		}
+
+		this.lastGridStorage = this.storageFile.getCounter();
+	}
+
+	/**
+	 * Moves the grid storages of older versions from the settings file into the grid storage file. They are written to
+	 * a temporary file which only replaces the grid storage file once it is complete, so a failed migration is retried
+	 * on the next start.
+	 */
+	private void migrateConfig() throws IOException
+	{
+		final File temp = new File( this.gridStorageFile.getParentFile(), this.gridStorageFile.getName() + ".tmp" );
+		temp.delete();
+
+		final GridStorageFile migration = new GridStorageFile( temp );
+		int migrated = 0;
 
 		try
 		{
-			this.lastGridStorage = Long.parseLong( lastString );
+			migration.open();
+
+			if( this.config.hasCategory( LAST_GRID_STORAGE_CATEGORY ) )
+			{
+				final String lastString = this.config.get( LAST_GRID_STORAGE_CATEGORY, LAST_GRID_STORAGE_KEY, LAST_GRID_STORAGE_DEFAULT ).getString();
+
+				try
+				{
+					migration.setCounter( Long.parseLong( lastString ) );
+				}
+				catch( final NumberFormatException err )
+				{
+					AELog.warn( "The config contained a value which was not represented as a Long: %s", lastString );
+				}
+			}
+
+			if( this.config.hasCategory( GRID_STORAGE_CATEGORY ) )
+			{
+				for( final Map.Entry<String, Property> entry : this.config.getCategory( GRID_STORAGE_CATEGORY ).entrySet() )
+				{
+					try
+					{
+						final long id = Long.parseLong( entry.getKey() );
+						final byte[] data = javax.xml.bind.DatatypeConverter.parseBase64Binary( entry.getValue().getString() );
+
+						if( data.length > 0 )
+						{
+							migration.write( id, data );
+							migrated++;
+						}
+					}
+					catch( final IllegalArgumentException err )
+					{
+						AELog.warn( "Skipping invalid grid storage %s while migrating the settings file.", entry.getKey() );
+					}
+				}
+			}
 		}
-		catch( final NumberFormatException err )
+		finally
 		{
-			AELog.warn( "The config contained a value which was not represented as a Long: %s", lastString );
+			migration.close();
+		}
+
+		GridStorageFile.replace( temp, this.gridStorageFile );
+
+		if( this.config.hasCategory( LAST_GRID_STORAGE_CATEGORY ) )
+		{
+			this.config.removeCategory( this.config.getCategory( LAST_GRID_STORAGE_CATEGORY ) );
+		}
 
-			this.lastGridStorage = 0;
+		if( this.config.hasCategory( GRID_STORAGE_CATEGORY ) )
+		{
+			this.config.removeCategory( this.config.getCategory( GRID_STORAGE_CATEGORY ) );
+			AELog.info( "Migrated %d grid storages from the settings file.", migrated );
 		}
 	}
 
 	@Override
 	public void onWorldStop()
 	{
-		// populate new data
-		for( final GridStorageSearch gs : this.loadedStorage.keySet() )
+		try
 		{
-			final GridStorage thisStorage = gs.getGridStorage().get();
-			if( thisStorage != null && thisStorage.getGrid() != null && !thisStorage.getGrid().isEmpty() )
+			// populate new data
+			for( final GridStorageSearch gs : this.loadedStorage.keySet() )
 			{
-				final String value = thisStorage.getValue();
-				this.config.get( GRID_STORAGE_CATEGORY, String.valueOf( thisStorage.getID() ), value ).set( value );
+				final GridStorage thisStorage = gs.getGridStorage().get();
+				if( thisStorage != null && thisStorage.getGrid() != null && !thisStorage.getGrid().isEmpty() )
+				{
+					final byte[] value = thisStorage.getValue();
+					if( value != null )
+					{
+						this.storageFile.write( thisStorage.getID(), value );
+					}
+				}
 			}
+
+			this.storageFile.setCounter( this.lastGridStorage );
+			this.storageFile.compactIfNeeded();
+			this.storageFile.close();
+		}
+		catch( final IOException e )
+		{
+			AELog.warn( e, "Failed to save the grid storage file." );
 		}
 
 		this.config.save();
@@ -55,6 +55,7 @@ public final class WorldData implements IWorldData
 	private static final String SETTING_FILE_NAME = "settings.cfg";
 	private static final String SPAWNDATA_DIR_NAME = "spawndata";
 	private static final String COMPASS_DIR_NAME = "compass";
+	private static final String GRID_STORAGE_FILE_NAME = "gridstorage.dat";
 
 	@Nullable
 	private static IWorldData instance;
@@ -86,13 +87,13 @@ public final class WorldData implements IWorldData
 		this.sharedConfig = new Configuration( settingsFile, AEConfig.VERSION );
 
 		final PlayerData playerData = new PlayerData( this.sharedConfig );
-		final StorageData storageData = new StorageData( this.sharedConfig );
+		final StorageData storageData = new StorageData( this.sharedConfig, new File( this.ae2directory, GRID_STORAGE_FILE_NAME ) );
 
 		final ThreadFactory compassThreadFactory = new CompassThreadFactory();
 		final CompassService compassService = new CompassService( this.compassDirectory, compassThreadFactory );
 		final CompassData compassData = new CompassData( this.compassDirectory, compassService );
 
-		final IWorldSpawnData spawnData = new SpawnData( this.spawnDirectory );
+		final SpawnData spawnData = new SpawnData( this.spawnDirectory );
 
 		this.playerData = playerData;
 		this.storageData = storageData;
@@ -100,7 +101,7 @@ public final class WorldData implements IWorldData
 		this.spawnData = spawnData;
 
 		this.startables = Lists.<IOnWorldStartable>newArrayList( playerData, storageData );
-		this.stoppables = Lists.<IOnWorldStoppable>newArrayList( playerData, storageData, compassData );
+		this.stoppables = Lists.<IOnWorldStoppable>newArrayList( playerData, storageData, compassData, spawnData );
 	}
 
 	/**
@@ -19,8 +19,12 @@
 package appeng.crafting;
 
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import com.google.common.base.Stopwatch;
 
@@ -44,13 +48,16 @@ import appeng.api.storage.channels.IItemStorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
 import appeng.api.util.DimensionalCoord;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.hooks.TickHandler;
+import appeng.me.cache.CraftingGridCache;
 
 
 public class CraftingJob implements Runnable, ICraftingJob
 {
 	private static final String LOG_CRAFTING_JOB = "CraftingJob (%s) issued by %s requesting [%s] using %s bytes took %s ms";
+	private static final String LOG_CRAFTING_TREE = "CraftingJob tree for [%s] has %d nodes, %d of %d pattern lookups were memoized";
 	private static final String LOG_MACHINE_SOURCE_DETAILS = "Machine[object=%s, %s]";
 
 	private final MECraftingInventory original;
@@ -63,6 +70,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 	private CraftingTreeNode tree;
 	private final IAEItemStack output;
 	private boolean simulate = false;
+	private boolean timedOut = false;
 	private MECraftingInventory availableCheck;
 	private long bytes = 0;
 	private final IActionSource actionSrc;
@@ -71,6 +79,14 @@ public class CraftingJob implements Runnable, ICraftingJob
 	private boolean done = false;
 	private int time = 5;
 	private int incTime = Integer.MAX_VALUE;
+	private final boolean offThread;
+
+	// deep trees ask for the same ingredients and patterns over and over again.
+	private final Map<PatternRequest, Collection<ICraftingPatternDetails>> patternRequests = new HashMap<>();
+	private final Map<ICraftingPatternDetails, CraftingTreeProcess.Layout> layouts = new HashMap<>();
+	private int treeSize = 0;
+	private int memoLookups = 0;
+	private int memoHits = 0;
 
 	private World wrapWorld( final World w )
 	{
@@ -91,6 +107,10 @@ public class CraftingJob implements Runnable, ICraftingJob
 
 		this.setTree( this.getCraftingTree( cc, what ) );
 		this.availableCheck = null;
+
+		// the inventory and the crafting tree are snapshots by now, so the calculation itself only needs the server
+		// thread for recipes which have to be crafted against the world.
+		this.offThread = AEConfig.instance().isCraftingCalculationOffThread() && !this.getTree().needsServerThread();
 	}
 
 	private CraftingTreeNode getCraftingTree( final ICraftingGrid cc, final IAEItemStack what )
@@ -98,6 +118,51 @@ public class CraftingJob implements Runnable, ICraftingJob
 		return new CraftingTreeNode( cc, this, what, null, -1, 0 );
 	}
 
+	Collection<ICraftingPatternDetails> getCraftingFor( final ICraftingGrid cc, final IAEItemStack what, final ICraftingPatternDetails details, final int slot )
+	{
+		// the parent pattern and slot are only used to find substitutes for crafting recipes.
+		final boolean substitute = details != null && details.isCraftable();
+		final PatternRequest request = new PatternRequest( what, substitute ? details : null, substitute ? slot : -1 );
+
+		this.memoLookups++;
+		Collection<ICraftingPatternDetails> result = this.patternRequests.get( request );
+
+		if( result == null )
+		{
+			result = cc.getCraftingFor( what, details, slot, this.world );
+			this.patternRequests.put( request.copy(), result );
+		}
+		else
+		{
+			this.memoHits++;
+		}
+
+		return result;
+	}
+
+	CraftingTreeProcess.Layout getLayout( final ICraftingPatternDetails details, final Function<ICraftingPatternDetails, CraftingTreeProcess.Layout> factory )
+	{
+		this.memoLookups++;
+		CraftingTreeProcess.Layout layout = this.layouts.get( details );
+
+		if( layout == null )
+		{
+			layout = factory.apply( details );
+			this.layouts.put( details, layout );
+		}
+		else
+		{
+			this.memoHits++;
+		}
+
+		return layout;
+	}
+
+	void addTreeNode()
+	{
+		this.treeSize++;
+	}
+
 	void refund( final IAEItemStack o )
 	{
 		this.availableCheck.injectItems( o, Actionable.MODULATE, this.actionSrc );
@@ -136,8 +201,15 @@ public class CraftingJob implements Runnable, ICraftingJob
 		{
 			try
 			{
-				TickHandler.INSTANCE.registerCraftingSimulation( this.world, this );
-				this.handlePausing();
+				if( this.offThread )
+				{
+					this.watch.start();
+				}
+				else
+				{
+					TickHandler.INSTANCE.registerCraftingSimulation( this.world, this );
+					this.handlePausing();
+				}
 
 				final Stopwatch timer = Stopwatch.createStarted();
 
@@ -192,7 +264,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 				}
 				catch( final InterruptedException e1 )
 				{
-					AELog.crafting( "Crafting calculation canceled." );
+					this.logInterrupted();
 					this.finish();
 					return;
 				}
@@ -203,7 +275,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 			}
 			catch( final InterruptedException e1 )
 			{
-				AELog.crafting( "Crafting calculation canceled." );
+				this.logInterrupted();
 				this.finish();
 				return;
 			}
@@ -221,7 +293,25 @@ public class CraftingJob implements Runnable, ICraftingJob
 
 	void handlePausing() throws InterruptedException
 	{
-		if( this.incTime > 100 )
+		if( this.incTime > 100 && this.offThread )
+		{
+			this.incTime = 0;
+
+			final int budget = AEConfig.instance().getCraftingCalculationTimeBudget();
+			if( budget > 0 && this.watch.elapsed( TimeUnit.MILLISECONDS ) > budget )
+			{
+				// an incomplete plan must never be submitted or shown.
+				this.timedOut = true;
+				this.simulate = true;
+				throw new InterruptedException();
+			}
+
+			if( Thread.interrupted() )
+			{
+				throw new InterruptedException();
+			}
+		}
+		else if( this.incTime > 100 )
 		{
 			this.incTime = 0;
 
@@ -255,9 +345,21 @@ public class CraftingJob implements Runnable, ICraftingJob
 		this.incTime++;
 	}
 
+	private void logInterrupted()
+	{
+		if( this.timedOut )
+		{
+			AELog.crafting( "Crafting calculation timed out after %d ms.", this.watch.elapsed( TimeUnit.MILLISECONDS ) );
+		}
+		else
+		{
+			AELog.crafting( "Crafting calculation canceled." );
+		}
+	}
+
 	private void finish()
 	{
-		if( this.callback != null )
+		if( this.callback != null && !this.offThread )
 		{
 			this.callback.calculationComplete( this );
 		}
@@ -270,6 +372,12 @@ public class CraftingJob implements Runnable, ICraftingJob
 			this.done = true;
 			this.monitor.notify();
 		}
+
+		if( this.callback != null && this.offThread )
+		{
+			// hand the result out on the server thread.
+			TickHandler.INSTANCE.registerCraftingSimulation( this.world, this );
+		}
 	}
 
 	@Override
@@ -287,7 +395,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 	@Override
 	public void populatePlan( final IItemList<IAEItemStack> plan )
 	{
-		if( this.getTree() != null )
+		if( this.getTree() != null && !this.timedOut )
 		{
 			this.getTree().getPlan( plan );
 		}
@@ -304,6 +412,14 @@ public class CraftingJob implements Runnable, ICraftingJob
 		return this.done;
 	}
 
+	/**
+	 * @return true if the calculation ran out of its time budget, it is then an empty simulation.
+	 */
+	public boolean isTimedOut()
+	{
+		return this.timedOut;
+	}
+
 	World getWorld()
 	{
 		return this.world;
@@ -318,6 +434,13 @@ public class CraftingJob implements Runnable, ICraftingJob
 	 */
 	public boolean simulateFor( final int milli )
 	{
+		if( this.offThread )
+		{
+			// only registered once done
+			this.callback.calculationComplete( this );
+			return false;
+		}
+
 		this.time = milli;
 
 		synchronized( this.monitor )
@@ -352,6 +475,14 @@ public class CraftingJob implements Runnable, ICraftingJob
 		return true;
 	}
 
+	/**
+	 * Checks the plan against the current patterns of the grid, the items are validated when the job is committed.
+	 */
+	public boolean isPlanValid( final CraftingGridCache cc )
+	{
+		return this.getTree() != null && this.getTree().isPlanValid( cc );
+	}
+
 	void addBytes( final long crafts )
 	{
 		this.bytes += crafts;
@@ -396,6 +527,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 			}
 
 			AELog.crafting( LOG_CRAFTING_JOB, type, actionSource, itemToOutput, this.bytes, elapsedTime );
+			AELog.craftingDebug( LOG_CRAFTING_TREE, itemToOutput, this.treeSize, this.memoHits, this.memoLookups );
 		}
 	}
 
@@ -404,4 +536,44 @@ public class CraftingJob implements Runnable, ICraftingJob
 		private final long perOp = 0;
 		private final long times = 0;
 	}
+
+	private static final class PatternRequest
+	{
+		private final IAEItemStack what;
+		private final ICraftingPatternDetails details;
+		private final int slot;
+
+		private PatternRequest( final IAEItemStack what, final ICraftingPatternDetails details, final int slot )
+		{
+			this.what = what;
+			this.details = details;
+			this.slot = slot;
+		}
+
+		/**
+		 * the requested stack keeps changing its size, only keep a copy around.
+		 */
+		private PatternRequest copy()
+		{
+			return new PatternRequest( this.what.copy(), this.details, this.slot );
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return ( this.what.hashCode() * 31 + Objects.hashCode( this.details ) ) * 31 + this.slot;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( !( obj instanceof PatternRequest ) )
+			{
+				return false;
+			}
+
+			final PatternRequest other = (PatternRequest) obj;
+			return this.slot == other.slot && this.what.equals( other.what ) && Objects.equals( this.details, other.details );
+		}
+	}
 }
@@ -36,6 +36,7 @@ import appeng.api.networking.security.IActionSource;
 import appeng.api.storage.channels.IItemStorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
+import appeng.me.cache.CraftingGridCache;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 
 
@@ -57,6 +58,8 @@ public class CraftingTreeNode
 	private boolean canEmit = false;
 	private long missing = 0;
 	private long howManyEmitted = 0;
+	// the exact item is tested against the recipe while the tree is built on the server thread.
+	private final boolean validForSlot;
 	private boolean exhausted = false;
 
 	private boolean sim;
@@ -70,6 +73,17 @@ public class CraftingTreeNode
 		this.job = job;
 		this.sim = false;
 
+		job.addTreeNode();
+
+		if( this.isCraftingInput() && !this.parent.details.canSubstitute() )
+		{
+			this.validForSlot = this.parent.details.isValidItemForSlot( slot, this.what.copy().setStackSize( 1 ).createItemStack(), this.world );
+		}
+		else
+		{
+			this.validForSlot = true;
+		}
+
 		this.canEmit = cc.canEmitFor( this.what );
 
 		if( this.canEmit )
@@ -77,7 +91,7 @@ public class CraftingTreeNode
 			return; // if you can emit for something, you can't make it with patterns.
 		}
 
-		for( final ICraftingPatternDetails details : cc.getCraftingFor( this.what, this.parent == null ? null : this.parent.details, slot, this.world ) )// in
+		for( final ICraftingPatternDetails details : job.getCraftingFor( cc, this.what, this.parent == null ? null : this.parent.details, slot ) )// in
 		// order.
 		{
 			if( this.parent == null || this.parent.notRecursive( details ) )
@@ -124,7 +138,7 @@ public class CraftingTreeNode
 		final List<IAEItemStack> thingsUsed = new ArrayList<>();
 
 		this.what.setStackSize( l );
-		if( this.getSlot() >= 0 && this.parent != null && this.parent.details.isCraftable() )
+		if( this.isCraftingInput() )
 		{
 			final Collection<IAEItemStack> itemList;
 			final IItemList<IAEItemStack> inventoryList = inv.getItemList();
@@ -147,7 +161,7 @@ public class CraftingTreeNode
 
 			for( IAEItemStack fuzz : itemList )
 			{
-				if( this.parent.details.isValidItemForSlot( this.getSlot(), fuzz.copy().setStackSize( 1 ).createItemStack(), this.world ) )
+				if( this.isValidForSlot( fuzz ) )
 				{
 					fuzz = fuzz.copy();
 					fuzz.setStackSize( l );
@@ -373,6 +387,45 @@ public class CraftingTreeNode
 		}
 	}
 
+	/**
+	 * substitutes are matched against the recipe and the world while requesting.
+	 */
+	boolean needsServerThread()
+	{
+		if( this.isCraftingInput() && this.parent.details.canSubstitute() )
+		{
+			return true;
+		}
+
+		for( final CraftingTreeProcess pro : this.nodes )
+		{
+			if( pro.needsServerThread() )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	boolean isPlanValid( final CraftingGridCache cc )
+	{
+		if( this.howManyEmitted > 0 && !cc.canEmitFor( this.what ) )
+		{
+			return false;
+		}
+
+		for( final CraftingTreeProcess pro : this.nodes )
+		{
+			if( !pro.isPlanValid( cc ) )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	void getPlan( final IItemList<IAEItemStack> plan )
 	{
 		if( this.missing > 0 )
@@ -400,6 +453,21 @@ public class CraftingTreeNode
 		}
 	}
 
+	private boolean isValidForSlot( final IAEItemStack fuzz )
+	{
+		if( !this.parent.details.canSubstitute() )
+		{
+			return this.validForSlot;
+		}
+
+		return this.parent.details.isValidItemForSlot( this.getSlot(), fuzz.copy().setStackSize( 1 ).createItemStack(), this.world );
+	}
+
+	private boolean isCraftingInput()
+	{
+		return this.getSlot() >= 0 && this.parent != null && this.parent.details.isCraftable();
+	}
+
 	int getSlot()
 	{
 		return this.slot;
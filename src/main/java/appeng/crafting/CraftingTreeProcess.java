@@ -19,7 +19,9 @@
 package appeng.crafting;
 
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -38,6 +40,7 @@ import appeng.api.storage.channels.IItemStorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
 import appeng.container.ContainerNull;
+import appeng.me.cache.CraftingGridCache;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.util.Platform;
 
@@ -51,7 +54,7 @@ public class CraftingTreeProcess
 	private final Map<CraftingTreeNode, Long> nodes = new HashMap<>();
 	private final int depth;
 	boolean possible = true;
-	private World world;
+	private final World world;
 	private long crafts = 0;
 	private boolean containerItems;
 	private boolean limitQty;
@@ -64,7 +67,28 @@ public class CraftingTreeProcess
 		this.details = details;
 		this.job = job;
 		this.depth = depth;
-		final World world = job.getWorld();
+		this.world = job.getWorld();
+
+		job.addTreeNode();
+
+		final Layout layout = job.getLayout( details, this::createLayout );
+		this.fullSimulation = layout.fullSimulation;
+		this.limitQty = layout.limitQty;
+		this.containerItems = layout.containerItems;
+
+		for( int x = 0; x < layout.inputs.size(); x++ )
+		{
+			final IAEItemStack part = layout.inputs.get( x );
+			this.nodes.put( new CraftingTreeNode( cc, job, part.copy(), this, layout.slots.get( x ), depth + 1 ), part.getStackSize() );
+		}
+	}
+
+	/**
+	 * Analyzes the pattern, the result only depends on the pattern so it is shared by every process using it.
+	 */
+	private Layout createLayout( final ICraftingPatternDetails details )
+	{
+		final Layout layout = new Layout();
 
 		if( details.isCraftable() )
 		{
@@ -77,14 +101,14 @@ public class CraftingTreeProcess
 				ic.setInventorySlotContents( x, is[x] == null ? ItemStack.EMPTY : is[x].createItemStack() );
 			}
 
-			FMLCommonHandler.instance().firePlayerCraftingEvent( Platform.getPlayer( (WorldServer) world ), details.getOutput( ic, world ), ic );
+			FMLCommonHandler.instance().firePlayerCraftingEvent( Platform.getPlayer( (WorldServer) this.world ), details.getOutput( ic, this.world ), ic );
 
 			for( int x = 0; x < ic.getSizeInventory(); x++ )
 			{
 				final ItemStack g = ic.getStackInSlot( x );
 				if( !g.isEmpty() && g.getCount() > 1 )
 				{
-					this.fullSimulation = true;
+					layout.fullSimulation = true;
 				}
 			}
 
@@ -103,25 +127,25 @@ public class CraftingTreeProcess
 
 				if( isAnInput )
 				{
-					this.limitQty = true;
+					layout.limitQty = true;
 				}
 
 				if( g.getItem().hasContainerItem( g ) )
 				{
-					this.limitQty = this.containerItems = true;
+					layout.limitQty = layout.containerItems = true;
 				}
 			}
 
 			final boolean complicated = false;
 
-			if( this.containerItems || complicated )
+			if( layout.containerItems || complicated )
 			{
 				for( int x = 0; x < list.length; x++ )
 				{
 					final IAEItemStack part = list[x];
 					if( part != null )
 					{
-						this.nodes.put( new CraftingTreeNode( cc, job, part.copy(), this, x, depth + 1 ), part.getStackSize() );
+						layout.add( part, x );
 					}
 				}
 			}
@@ -136,7 +160,7 @@ public class CraftingTreeProcess
 						if( part != null && part.equals( comparePart ) )
 						{
 							// use the first slot...
-							this.nodes.put( new CraftingTreeNode( cc, job, part.copy(), this, x, depth + 1 ), part.getStackSize() );
+							layout.add( part, x );
 							break;
 						}
 					}
@@ -160,15 +184,17 @@ public class CraftingTreeProcess
 
 				if( isAnInput )
 				{
-					this.limitQty = true;
+					layout.limitQty = true;
 				}
 			}
 
 			for( final IAEItemStack part : details.getCondensedInputs() )
 			{
-				this.nodes.put( new CraftingTreeNode( cc, job, part.copy(), this, -1, depth + 1 ), part.getStackSize() );
+				layout.add( part, -1 );
 			}
 		}
+
+		return layout;
 	}
 
 	boolean notRecursive( final ICraftingPatternDetails details )
@@ -308,6 +334,45 @@ public class CraftingTreeProcess
 		}
 	}
 
+	/**
+	 * fully simulated crafting fires crafting events and matches recipes against the world while requesting.
+	 */
+	boolean needsServerThread()
+	{
+		if( this.fullSimulation )
+		{
+			return true;
+		}
+
+		for( final CraftingTreeNode pro : this.nodes.keySet() )
+		{
+			if( pro.needsServerThread() )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	boolean isPlanValid( final CraftingGridCache cc )
+	{
+		if( this.crafts > 0 && cc.getMediums( this.details ).isEmpty() )
+		{
+			return false;
+		}
+
+		for( final CraftingTreeNode pro : this.nodes.keySet() )
+		{
+			if( !pro.isPlanValid( cc ) )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	void getPlan( final IItemList<IAEItemStack> plan )
 	{
 		for( IAEItemStack i : this.details.getOutputs() )
@@ -322,4 +387,22 @@ public class CraftingTreeProcess
 			pro.getPlan( plan );
 		}
 	}
+
+	/**
+	 * The inputs and flags of a pattern, which do not change during a calculation.
+	 */
+	static final class Layout
+	{
+		private final List<IAEItemStack> inputs = new ArrayList<>();
+		private final List<Integer> slots = new ArrayList<>();
+		private boolean containerItems;
+		private boolean limitQty;
+		private boolean fullSimulation;
+
+		private void add( final IAEItemStack part, final int slot )
+		{
+			this.inputs.add( part.copy() );
+			this.slots.add( slot );
+		}
+	}
 }
@@ -0,0 +1,52 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import net.minecraft.inventory.InventoryCrafting;
+
+import appeng.api.networking.crafting.ICraftingMedium;
+import appeng.api.networking.crafting.ICraftingPatternDetails;
+
+
+/**
+ * A crafting medium which can receive several crafts of a processing pattern with a single push.
+ */
+public interface ICraftingBatchMedium extends ICraftingMedium
+{
+
+	/**
+	 * @param patternDetails details
+	 *
+	 * @return the number of crafts which can be pushed at once, 1 if the pattern can not be batched.
+	 */
+	int getMaxBatchSize( ICraftingPatternDetails patternDetails );
+
+	/**
+	 * like {@link ICraftingMedium#pushPattern(ICraftingPatternDetails, InventoryCrafting)}, but the table contains the
+	 * inputs for the given number of crafts.
+	 *
+	 * @param patternDetails details
+	 * @param table crafting table holding the inputs of all crafts
+	 * @param crafts number of crafts on the table
+	 *
+	 * @return if the pattern was successfully pushed.
+	 */
+	boolean pushPattern( ICraftingPatternDetails patternDetails, InventoryCrafting table, int crafts );
+}
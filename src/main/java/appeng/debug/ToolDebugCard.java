@@ -137,14 +137,21 @@ public class ToolDebugCard extends AEBaseItem
 					}
 
 					final TickManagerCache tmc = g.getCache( ITickManager.class );
+					this.outputMsg( player, "Grid Tick Time: " + this.timeMeasurement( tmc.getAvgNanoTime() ) );
+
 					for( final Class<? extends IGridHost> c : g.getMachineClasses() )
 					{
 						int o = 0;
-						long nanos = 0;
+						long nanos = -1;
 						for( final IGridNode oj : g.getMachines( c ) )
 						{
 							o++;
-							nanos += tmc.getAvgNanoTime( oj );
+
+							final long avg = tmc.getAvgNanoTime( oj );
+							if( avg >= 0 )
+							{
+								nanos = Math.max( nanos, 0 ) + avg;
+							}
 						}
 
 						if( nanos < 0 )
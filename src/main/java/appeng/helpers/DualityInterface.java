@@ -89,7 +89,9 @@ import appeng.api.util.DimensionalCoord;
 import appeng.api.util.IConfigManager;
 import appeng.capabilities.Capabilities;
 import appeng.core.settings.TickRates;
+import appeng.crafting.ICraftingBatchMedium;
 import appeng.me.GridAccessException;
+import appeng.me.cache.InterfaceTerminalCache;
 import appeng.me.helpers.AENetworkProxy;
 import appeng.me.helpers.MachineSource;
 import appeng.me.storage.MEMonitorIInventory;
@@ -110,7 +112,7 @@ import appeng.util.inv.InvOperation;
 import appeng.util.item.AEItemStack;
 
 
-public class DualityInterface implements IGridTickable, IStorageMonitorable, IInventoryDestination, IAEAppEngInventory, IConfigManagerHost, ICraftingProvider, IUpgradeableHost
+public class DualityInterface implements IGridTickable, IStorageMonitorable, IInventoryDestination, IAEAppEngInventory, IConfigManagerHost, ICraftingProvider, ICraftingBatchMedium, IUpgradeableHost
 {
 
 	public static final int NUMBER_OF_STORAGE_SLOTS = 9;
@@ -172,6 +174,11 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	@Override
 	public void onChangeInventory( final IItemHandler inv, final int slot, final InvOperation mc, final ItemStack removed, final ItemStack added )
 	{
+		if( inv == this.patterns )
+		{
+			this.notifyInterfaceTerminals();
+		}
+
 		if( this.isWorking == slot )
 		{
 			return;
@@ -861,9 +868,28 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		{
 			this.cancelCrafting();
 		}
+
+		if( settingName == Settings.INTERFACE_TERMINAL )
+		{
+			this.notifyInterfaceTerminals();
+		}
+
 		this.iHost.saveChanges();
 	}
 
+	private void notifyInterfaceTerminals()
+	{
+		try
+		{
+			final InterfaceTerminalCache cache = this.gridProxy.getGrid().getCache( InterfaceTerminalCache.class );
+			cache.interfaceChanged( this.iHost );
+		}
+		catch( final GridAccessException e )
+		{
+			// :P
+		}
+	}
+
 	private void cancelCrafting()
 	{
 		this.craftingTracker.cancel();
@@ -895,6 +921,35 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 	@Override
 	public boolean pushPattern( final ICraftingPatternDetails patternDetails, final InventoryCrafting table )
+	{
+		return this.pushPattern( patternDetails, table, 1 );
+	}
+
+	@Override
+	public int getMaxBatchSize( final ICraftingPatternDetails patternDetails )
+	{
+		// a blocking interface only sends a single craft into an empty machine.
+		if( patternDetails.isCraftable() || this.isBlocking() )
+		{
+			return 1;
+		}
+
+		// keep every slot within a single stack, not every inventory handles oversized stacks.
+		int batch = Integer.MAX_VALUE;
+		for( final IAEItemStack input : patternDetails.getInputs() )
+		{
+			if( input != null )
+			{
+				final long limit = input.createItemStack().getMaxStackSize() / input.getStackSize();
+				batch = (int) Math.max( 1, Math.min( batch, limit ) );
+			}
+		}
+
+		return batch == Integer.MAX_VALUE ? 1 : batch;
+	}
+
+	@Override
+	public boolean pushPattern( final ICraftingPatternDetails patternDetails, final InventoryCrafting table, final int crafts )
 	{
 		if( this.hasItemsToSend() || !this.gridProxy.isActive() || !this.craftingList.contains( patternDetails ) )
 		{
@@ -928,7 +983,8 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 				final ICraftingMachine cm = (ICraftingMachine) te;
 				if( cm.acceptsPlans() )
 				{
-					if( cm.pushPattern( patternDetails, table, s.getOpposite() ) )
+					// machines only ever work on a single plan
+					if( crafts == 1 && cm.pushPattern( patternDetails, table, s.getOpposite() ) )
 					{
 						return true;
 					}
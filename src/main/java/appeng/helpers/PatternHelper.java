@@ -19,16 +19,18 @@
 package appeng.helpers;
 
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import net.minecraft.inventory.InventoryCrafting;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.CraftingManager;
 import net.minecraft.item.crafting.IRecipe;
@@ -46,28 +48,38 @@ import appeng.core.AELog;
 import appeng.core.features.AEFeature;
 import appeng.util.Platform;
 import appeng.util.item.AEItemStack;
+import appeng.util.item.AEItemStackRegistry;
 
 
 public class PatternHelper implements ICraftingPatternDetails, Comparable<PatternHelper>
 {
 
+	/**
+	 * Decoded patterns by the identity of their NBT, so refreshing the crafting providers does not search the recipes
+	 * again for every pattern. The tag is never modified in place, encoding a pattern always sets a new one.
+	 */
+	private static final int CACHE_SIZE = 16384;
+	private static final Cache<NBTTagCompound, CacheEntry> DECODED = CacheBuilder.newBuilder().weakKeys().maximumSize( CACHE_SIZE ).build();
+
 	private final ItemStack patternItem;
-	private final InventoryCrafting crafting = new InventoryCrafting( new ContainerNull(), 3, 3 );
-	private final InventoryCrafting testFrame = new InventoryCrafting( new ContainerNull(), 3, 3 );
-	private final ItemStack correctOutput;
-	private final IRecipe standardRecipe;
-	private final IAEItemStack[] condensedInputs;
-	private final IAEItemStack[] condensedOutputs;
-	private final IAEItemStack[] inputs;
-	private final IAEItemStack[] outputs;
-	private final boolean isCrafting;
-	private final boolean canSubstitute;
-	private final Set<TestLookup> failCache = new HashSet<>();
-	private final Set<TestLookup> passCache = new HashSet<>();
-	private final IAEItemStack pattern;
+	private final Decoded decoded;
 	private int priority = 0;
 
 	public PatternHelper( final ItemStack is, final World w )
+	{
+		this.patternItem = is;
+		this.decoded = decode( is, w );
+	}
+
+	/**
+	 * Drops all decoded patterns, has to be called when the recipes change.
+	 */
+	public static void invalidateCache()
+	{
+		DECODED.invalidateAll();
+	}
+
+	private static Decoded decode( final ItemStack is, final World w )
 	{
 		final NBTTagCompound encodedValue = is.getTagCompound();
 
@@ -76,153 +88,32 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 			throw new IllegalArgumentException( "No pattern here!" );
 		}
 
-		final NBTTagList inTag = encodedValue.getTagList( "in", 10 );
-		final NBTTagList outTag = encodedValue.getTagList( "out", 10 );
-		this.isCrafting = encodedValue.getBoolean( "crafting" );
+		final CacheEntry cached = DECODED.getIfPresent( encodedValue );
 
-		this.canSubstitute = this.isCrafting && encodedValue.getBoolean( "substitute" );
-		this.patternItem = is;
-		this.pattern = AEItemStack.fromItemStack( is );
-
-		final List<IAEItemStack> in = new ArrayList<>();
-		final List<IAEItemStack> out = new ArrayList<>();
-
-		for( int x = 0; x < inTag.tagCount(); x++ )
+		if( cached != null && cached.world.get() == w )
 		{
-			NBTTagCompound ingredient = inTag.getCompoundTagAt( x );
-			final ItemStack gs = new ItemStack( ingredient );
-
-			if( !ingredient.hasNoTags() && gs.isEmpty() )
-			{
-				throw new IllegalArgumentException( "No pattern here!" );
-			}
-
-			this.crafting.setInventorySlotContents( x, gs );
-
-			if( !gs.isEmpty() && ( !this.isCrafting || !gs.hasTagCompound() ) )
-			{
-				this.markItemAs( x, gs, TestStatus.ACCEPT );
-			}
-
-			in.add( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( gs ) );
-			this.testFrame.setInventorySlotContents( x, gs );
-		}
-
-		if( this.isCrafting )
-		{
-			this.standardRecipe = CraftingManager.findMatchingRecipe( this.crafting, w );
-
-			if( this.standardRecipe != null )
-			{
-				this.correctOutput = this.standardRecipe.getCraftingResult( this.crafting );
-				out.add( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( this.correctOutput ) );
-			}
-			else
+			if( cached.decoded == null )
 			{
 				throw new IllegalStateException( "No pattern here!" );
 			}
-		}
-		else
-		{
-			this.standardRecipe = null;
-			this.correctOutput = ItemStack.EMPTY;
-
-			for( int x = 0; x < outTag.tagCount(); x++ )
-			{
-				NBTTagCompound resultItemTag = outTag.getCompoundTagAt( x );
-				final ItemStack gs = new ItemStack( resultItemTag );
-
-				if( !resultItemTag.hasNoTags() && gs.isEmpty() )
-				{
-					throw new IllegalArgumentException( "No pattern here!" );
-				}
-
-				if( !gs.isEmpty() )
-				{
-					out.add( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( gs ) );
-				}
-			}
-		}
-
-		this.outputs = out.toArray( new IAEItemStack[out.size()] );
-		this.inputs = in.toArray( new IAEItemStack[in.size()] );
-
-		final Map<IAEItemStack, IAEItemStack> tmpOutputs = new HashMap<>();
-
-		for( final IAEItemStack io : this.outputs )
-		{
-			if( io == null )
-			{
-				continue;
-			}
-
-			final IAEItemStack g = tmpOutputs.get( io );
-
-			if( g == null )
-			{
-				tmpOutputs.put( io, io.copy() );
-			}
-			else
-			{
-				g.add( io );
-			}
-		}
-
-		final Map<IAEItemStack, IAEItemStack> tmpInputs = new HashMap<>();
-
-		for( final IAEItemStack io : this.inputs )
-		{
-			if( io == null )
-			{
-				continue;
-			}
-
-			final IAEItemStack g = tmpInputs.get( io );
-
-			if( g == null )
-			{
-				tmpInputs.put( io, io.copy() );
-			}
-			else
-			{
-				g.add( io );
-			}
-		}
 
-		if( tmpOutputs.isEmpty() || tmpInputs.isEmpty() )
-		{
-			throw new IllegalStateException( "No pattern here!" );
+			return cached.decoded;
 		}
 
-		this.condensedInputs = new IAEItemStack[tmpInputs.size()];
-		int offset = 0;
-
-		for( final IAEItemStack io : tmpInputs.values() )
+		try
 		{
-			this.condensedInputs[offset] = io;
-			offset++;
+			final Decoded decoded = new Decoded( is, encodedValue, w );
+			DECODED.put( encodedValue, new CacheEntry( w, decoded ) );
+			return decoded;
 		}
-
-		offset = 0;
-		this.condensedOutputs = new IAEItemStack[tmpOutputs.size()];
-
-		for( final IAEItemStack io : tmpOutputs.values() )
+		catch( final RuntimeException e )
 		{
-			this.condensedOutputs[offset] = io;
-			offset++;
+			// remember broken patterns too, they would search the recipes again otherwise.
+			DECODED.put( encodedValue, new CacheEntry( w, null ) );
+			throw e;
 		}
 	}
 
-	private void markItemAs( final int slotIndex, final ItemStack i, final TestStatus b )
-	{
-		if( b == TestStatus.TEST || i.hasTagCompound() )
-		{
-			return;
-		}
-
-		( b == TestStatus.ACCEPT ? this.passCache : this.failCache ).add( new TestLookup( slotIndex, i ) );
-	}
-
 	@Override
 	public ItemStack getPattern()
 	{
@@ -230,108 +121,51 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 	}
 
 	@Override
-	public synchronized boolean isValidItemForSlot( final int slotIndex, final ItemStack i, final World w )
+	public boolean isValidItemForSlot( final int slotIndex, final ItemStack i, final World w )
 	{
-		if( !this.isCrafting )
-		{
-			throw new IllegalStateException( "Only crafting recipes supported." );
-		}
-
-		final TestStatus result = this.getStatus( slotIndex, i );
-
-		switch( result )
-		{
-			case ACCEPT:
-				return true;
-			case DECLINE:
-				return false;
-			case TEST:
-			default:
-				break;
-		}
-
-		for( int x = 0; x < this.crafting.getSizeInventory(); x++ )
-		{
-			this.testFrame.setInventorySlotContents( x, this.crafting.getStackInSlot( x ) );
-		}
-
-		this.testFrame.setInventorySlotContents( slotIndex, i );
-
-		if( this.standardRecipe.matches( this.testFrame, w ) )
-		{
-			final ItemStack testOutput = this.standardRecipe.getCraftingResult( this.testFrame );
-
-			if( Platform.itemComparisons().isSameItem( this.correctOutput, testOutput ) )
-			{
-				this.testFrame.setInventorySlotContents( slotIndex, this.crafting.getStackInSlot( slotIndex ) );
-				this.markItemAs( slotIndex, i, TestStatus.ACCEPT );
-				return true;
-			}
-		}
-		else if( AEConfig.instance().isFeatureEnabled( AEFeature.CRAFTING_MANAGER_FALLBACK ) )
-		{
-			final ItemStack testOutput = CraftingManager.findMatchingResult( this.testFrame, w );
-
-			if( Platform.itemComparisons().isSameItem( this.correctOutput, testOutput ) )
-			{
-				this.testFrame.setInventorySlotContents( slotIndex, this.crafting.getStackInSlot( slotIndex ) );
-				this.markItemAs( slotIndex, i, TestStatus.ACCEPT );
-
-				if( AELog.isCraftingDebugLogEnabled() )
-				{
-					this.warnAboutCraftingManager( true );
-				}
-
-				return true;
-			}
-
-			this.warnAboutCraftingManager( false );
-		}
-
-		this.markItemAs( slotIndex, i, TestStatus.DECLINE );
-		return false;
+		return this.decoded.isValidItemForSlot( slotIndex, i, w );
 	}
 
 	@Override
 	public boolean isCraftable()
 	{
-		return this.isCrafting;
+		return this.decoded.isCrafting;
 	}
 
 	@Override
 	public IAEItemStack[] getInputs()
 	{
-		return this.inputs;
+		return this.decoded.inputs;
 	}
 
 	@Override
 	public IAEItemStack[] getCondensedInputs()
 	{
-		return this.condensedInputs;
+		return this.decoded.condensedInputs;
 	}
 
 	@Override
 	public IAEItemStack[] getCondensedOutputs()
 	{
-		return this.condensedOutputs;
+		return this.decoded.condensedOutputs;
 	}
 
 	@Override
 	public IAEItemStack[] getOutputs()
 	{
-		return this.outputs;
+		return this.decoded.outputs;
 	}
 
 	@Override
 	public boolean canSubstitute()
 	{
-		return this.canSubstitute;
+		return this.decoded.canSubstitute;
 	}
 
 	@Override
 	public ItemStack getOutput( final InventoryCrafting craftingInv, final World w )
 	{
-		if( !this.isCrafting )
+		if( !this.decoded.isCrafting )
 		{
 			throw new IllegalStateException( "Only crafting recipes supported." );
 		}
@@ -344,44 +178,14 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 			}
 		}
 
-		if( this.outputs != null && this.outputs.length > 0 )
+		if( this.decoded.outputs != null && this.decoded.outputs.length > 0 )
 		{
-			return this.outputs[0].createItemStack();
+			return this.decoded.outputs[0].createItemStack();
 		}
 
 		return ItemStack.EMPTY;
 	}
 
-	private TestStatus getStatus( final int slotIndex, final ItemStack i )
-	{
-		if( this.crafting.getStackInSlot( slotIndex ).isEmpty() )
-		{
-			return i.isEmpty() ? TestStatus.ACCEPT : TestStatus.DECLINE;
-		}
-
-		if( i.isEmpty() )
-		{
-			return TestStatus.DECLINE;
-		}
-
-		if( i.hasTagCompound() )
-		{
-			return TestStatus.TEST;
-		}
-
-		if( this.passCache.contains( new TestLookup( slotIndex, i ) ) )
-		{
-			return TestStatus.ACCEPT;
-		}
-
-		if( this.failCache.contains( new TestLookup( slotIndex, i ) ) )
-		{
-			return TestStatus.DECLINE;
-		}
-
-		return TestStatus.TEST;
-	}
-
 	@Override
 	public int getPriority()
 	{
@@ -403,25 +207,7 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 	@Override
 	public int hashCode()
 	{
-		return this.pattern.hashCode();
-	}
-
-	private void warnAboutCraftingManager( boolean foundAlternative )
-	{
-		final String foundAlternativeRecipe = foundAlternative ? "Found alternative recipe." : "NOT FOUND, please report.";
-
-		final StringJoiner joinActualInputs = new StringJoiner( ", " );
-		for( int j = 0; j < this.testFrame.getSizeInventory(); j++ )
-		{
-			final ItemStack stack = this.testFrame.getStackInSlot( j );
-			if( !stack.isEmpty() )
-			{
-				joinActualInputs.add( stack.toString() );
-			}
-		}
-
-		AELog.warn( "Using CraftingManager fallback: Recipe <%s> for output <%s> rejected inputs [%s]. %s",
-				this.standardRecipe.getRegistryName(), this.standardRecipe.getRecipeOutput(), joinActualInputs, foundAlternativeRecipe );
+		return this.decoded.pattern.hashCode();
 	}
 
 	@Override
@@ -438,36 +224,288 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 
 		final PatternHelper other = (PatternHelper) obj;
 
-		if( this.pattern != null && other.pattern != null )
+		return this.decoded == other.decoded || this.decoded.pattern.equals( other.decoded.pattern );
+	}
+
+	private static final class CacheEntry
+	{
+		private final WeakReference<World> world;
+		private final Decoded decoded;
+
+		private CacheEntry( final World world, final Decoded decoded )
 		{
-			return this.pattern.equals( other.pattern );
+			this.world = new WeakReference<>( world );
+			this.decoded = decoded;
 		}
-		return false;
 	}
 
-	private enum TestStatus
+	/**
+	 * The part of a pattern which only depends on its NBT, shared by every {@link PatternHelper} of the same pattern.
+	 */
+	private static final class Decoded
 	{
-		ACCEPT, DECLINE, TEST
+		private static final int MAX_TESTED = 256;
+
+		private final InventoryCrafting crafting = new InventoryCrafting( new ContainerNull(), 3, 3 );
+		private final ItemStack correctOutput;
+		private final IRecipe standardRecipe;
+		private final IAEItemStack[] condensedInputs;
+		private final IAEItemStack[] condensedOutputs;
+		private final IAEItemStack[] inputs;
+		private final IAEItemStack[] outputs;
+		private final boolean isCrafting;
+		private final boolean canSubstitute;
+		private final Map<TestLookup, Boolean> tested = new ConcurrentHashMap<>();
+		private final IAEItemStack pattern;
+
+		private Decoded( final ItemStack is, final NBTTagCompound encodedValue, final World w )
+		{
+			final NBTTagList inTag = encodedValue.getTagList( "in", 10 );
+			final NBTTagList outTag = encodedValue.getTagList( "out", 10 );
+			this.isCrafting = encodedValue.getBoolean( "crafting" );
+
+			this.canSubstitute = this.isCrafting && encodedValue.getBoolean( "substitute" );
+			this.pattern = AEItemStack.fromItemStack( is );
+
+			final List<IAEItemStack> in = new ArrayList<>();
+			final List<IAEItemStack> out = new ArrayList<>();
+
+			for( int x = 0; x < inTag.tagCount(); x++ )
+			{
+				NBTTagCompound ingredient = inTag.getCompoundTagAt( x );
+				final ItemStack gs = new ItemStack( ingredient );
+
+				if( !ingredient.hasNoTags() && gs.isEmpty() )
+				{
+					throw new IllegalArgumentException( "No pattern here!" );
+				}
+
+				this.crafting.setInventorySlotContents( x, gs );
+
+				if( !gs.isEmpty() && ( !this.isCrafting || !gs.hasTagCompound() ) )
+				{
+					this.tested.put( new TestLookup( x, gs ), true );
+				}
+
+				in.add( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( gs ) );
+			}
+
+			if( this.isCrafting )
+			{
+				this.standardRecipe = CraftingManager.findMatchingRecipe( this.crafting, w );
+
+				if( this.standardRecipe != null )
+				{
+					this.correctOutput = this.standardRecipe.getCraftingResult( this.crafting );
+					out.add( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( this.correctOutput ) );
+				}
+				else
+				{
+					throw new IllegalStateException( "No pattern here!" );
+				}
+			}
+			else
+			{
+				this.standardRecipe = null;
+				this.correctOutput = ItemStack.EMPTY;
+
+				for( int x = 0; x < outTag.tagCount(); x++ )
+				{
+					NBTTagCompound resultItemTag = outTag.getCompoundTagAt( x );
+					final ItemStack gs = new ItemStack( resultItemTag );
+
+					if( !resultItemTag.hasNoTags() && gs.isEmpty() )
+					{
+						throw new IllegalArgumentException( "No pattern here!" );
+					}
+
+					if( !gs.isEmpty() )
+					{
+						out.add( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( gs ) );
+					}
+				}
+			}
+
+			this.outputs = out.toArray( new IAEItemStack[out.size()] );
+			this.inputs = in.toArray( new IAEItemStack[in.size()] );
+
+			final Map<IAEItemStack, IAEItemStack> tmpOutputs = new HashMap<>();
+
+			for( final IAEItemStack io : this.outputs )
+			{
+				if( io == null )
+				{
+					continue;
+				}
+
+				final IAEItemStack g = tmpOutputs.get( io );
+
+				if( g == null )
+				{
+					tmpOutputs.put( io, io.copy() );
+				}
+				else
+				{
+					g.add( io );
+				}
+			}
+
+			final Map<IAEItemStack, IAEItemStack> tmpInputs = new HashMap<>();
+
+			for( final IAEItemStack io : this.inputs )
+			{
+				if( io == null )
+				{
+					continue;
+				}
+
+				final IAEItemStack g = tmpInputs.get( io );
+
+				if( g == null )
+				{
+					tmpInputs.put( io, io.copy() );
+				}
+				else
+				{
+					g.add( io );
+				}
+			}
+
+			if( tmpOutputs.isEmpty() || tmpInputs.isEmpty() )
+			{
+				throw new IllegalStateException( "No pattern here!" );
+			}
+
+			this.condensedInputs = new IAEItemStack[tmpInputs.size()];
+			int offset = 0;
+
+			for( final IAEItemStack io : tmpInputs.values() )
+			{
+				this.condensedInputs[offset] = io;
+				offset++;
+			}
+
+			offset = 0;
+			this.condensedOutputs = new IAEItemStack[tmpOutputs.size()];
+
+			for( final IAEItemStack io : tmpOutputs.values() )
+			{
+				this.condensedOutputs[offset] = io;
+				offset++;
+			}
+		}
+
+		/**
+		 * Lock free, the results are memoized by slot and the interned stack, patterns are shared by every crafting
+		 * CPU and assembler using them.
+		 */
+		private boolean isValidItemForSlot( final int slotIndex, final ItemStack i, final World w )
+		{
+			if( !this.isCrafting )
+			{
+				throw new IllegalStateException( "Only crafting recipes supported." );
+			}
+
+			if( this.crafting.getStackInSlot( slotIndex ).isEmpty() )
+			{
+				return i.isEmpty();
+			}
+
+			if( i.isEmpty() )
+			{
+				return false;
+			}
+
+			final TestLookup lookup = new TestLookup( slotIndex, i );
+			final Boolean known = this.tested.get( lookup );
+
+			if( known != null )
+			{
+				return known;
+			}
+
+			final boolean valid = this.test( slotIndex, i, w );
+
+			// only a few stacks should ever be tested, do not let items with unique NBT grow it forever.
+			if( this.tested.size() < MAX_TESTED )
+			{
+				this.tested.put( lookup, valid );
+			}
+
+			return valid;
+		}
+
+		private boolean test( final int slotIndex, final ItemStack i, final World w )
+		{
+			final InventoryCrafting testFrame = new InventoryCrafting( new ContainerNull(), 3, 3 );
+
+			for( int x = 0; x < this.crafting.getSizeInventory(); x++ )
+			{
+				testFrame.setInventorySlotContents( x, this.crafting.getStackInSlot( x ) );
+			}
+
+			testFrame.setInventorySlotContents( slotIndex, i );
+
+			if( this.standardRecipe.matches( testFrame, w ) )
+			{
+				final ItemStack testOutput = this.standardRecipe.getCraftingResult( testFrame );
+
+				if( Platform.itemComparisons().isSameItem( this.correctOutput, testOutput ) )
+				{
+					return true;
+				}
+			}
+			else if( AEConfig.instance().isFeatureEnabled( AEFeature.CRAFTING_MANAGER_FALLBACK ) )
+			{
+				final ItemStack testOutput = CraftingManager.findMatchingResult( testFrame, w );
+
+				if( Platform.itemComparisons().isSameItem( this.correctOutput, testOutput ) )
+				{
+					if( AELog.isCraftingDebugLogEnabled() )
+					{
+						this.warnAboutCraftingManager( testFrame, true );
+					}
+
+					return true;
+				}
+
+				this.warnAboutCraftingManager( testFrame, false );
+			}
+
+			return false;
+		}
+
+		private void warnAboutCraftingManager( final InventoryCrafting testFrame, final boolean foundAlternative )
+		{
+			final String foundAlternativeRecipe = foundAlternative ? "Found alternative recipe." : "NOT FOUND, please report.";
+
+			final StringJoiner joinActualInputs = new StringJoiner( ", " );
+			for( int j = 0; j < testFrame.getSizeInventory(); j++ )
+			{
+				final ItemStack stack = testFrame.getStackInSlot( j );
+				if( !stack.isEmpty() )
+				{
+					joinActualInputs.add( stack.toString() );
+				}
+			}
+
+			AELog.warn( "Using CraftingManager fallback: Recipe <%s> for output <%s> rejected inputs [%s]. %s",
+					this.standardRecipe.getRegistryName(), this.standardRecipe.getRecipeOutput(), joinActualInputs, foundAlternativeRecipe );
+		}
 	}
 
 	private static final class TestLookup
 	{
 
 		private final int slot;
-		private final int ref;
+		private final Object stack;
 		private final int hash;
 
 		public TestLookup( final int slot, final ItemStack i )
-		{
-			this( slot, i.getItem(), i.getItemDamage() );
-		}
-
-		public TestLookup( final int slot, final Item item, final int dmg )
 		{
 			this.slot = slot;
-			this.ref = ( dmg << Platform.DEF_OFFSET ) | ( Item.getIdFromItem( item ) & 0xffff );
-			final int offset = 3 * slot;
-			this.hash = ( this.ref << offset ) | ( this.ref >> ( offset + 32 ) );
+			this.stack = AEItemStackRegistry.getStackKey( i );
+			this.hash = 31 * this.stack.hashCode() + slot;
 		}
 
 		@Override
@@ -479,20 +517,14 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 		@Override
 		public boolean equals( final Object obj )
 		{
-			final boolean equality;
-
 			if( obj instanceof TestLookup )
 			{
 				final TestLookup b = (TestLookup) obj;
 
-				equality = b.slot == this.slot && b.ref == this.ref;
-			}
-			else
-			{
-				equality = false;
+				return b.slot == this.slot && b.stack.equals( this.stack );
 			}
 
-			return equality;
+			return false;
 		}
 	}
 }
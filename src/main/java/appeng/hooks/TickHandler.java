@@ -51,6 +51,7 @@ import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.AppEng;
 import appeng.core.sync.packets.PacketPaintedEntity;
+import appeng.core.worlddata.WorldData;
 import appeng.crafting.CraftingJob;
 import appeng.me.Grid;
 import appeng.tile.AEBaseTile;
@@ -143,6 +144,15 @@ public class TickHandler
 		this.getRepo().clear();
 	}
 
+	@SubscribeEvent
+	public void saveWorld( final WorldEvent.Save ev )
+	{
+		if( Platform.isServer() && WorldData.instance() != null )
+		{
+			WorldData.instance().spawnData().save( ev.getWorld().provider.getDimension() );
+		}
+	}
+
 	@SubscribeEvent
 	public void unloadWorld( final WorldEvent.Unload ev )
 	{
@@ -37,6 +37,7 @@ public enum TheOneProbeText
 	P2P_INPUT_MANY_OUTPUTS,
 	P2P_OUTPUT,
 	P2P_FREQUENCY,
+	P2P_THROUGHPUT,
 
 	LOCKED,
 	UNLOCKED,
@@ -32,6 +32,7 @@ import mcjty.theoneprobe.api.ProbeMode;
 import appeng.api.parts.IPart;
 import appeng.integration.modules.theoneprobe.TheOneProbeText;
 import appeng.me.GridAccessException;
+import appeng.parts.p2p.PartP2PItems;
 import appeng.parts.p2p.PartP2PTunnel;
 import appeng.util.Platform;
 
@@ -94,6 +95,11 @@ public class P2PStateInfoProvider implements IPartProbInfoProvider
 			final String freqTooltip = Platform.p2p().toHexString( freq );
 
 			probeInfo.text( freqTooltip );
+
+			if( tunnel instanceof PartP2PItems && state != STATE_UNLINKED )
+			{
+				probeInfo.text( String.format( TheOneProbeText.P2P_THROUGHPUT.getLocal(), ( (PartP2PItems) tunnel ).getThroughput() ) );
+			}
 		}
 	}
 
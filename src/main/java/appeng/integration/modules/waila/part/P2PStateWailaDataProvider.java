@@ -36,6 +36,7 @@ import mcp.mobius.waila.api.IWailaDataAccessor;
 import appeng.api.parts.IPart;
 import appeng.core.localization.WailaText;
 import appeng.me.GridAccessException;
+import appeng.parts.p2p.PartP2PItems;
 import appeng.parts.p2p.PartP2PTunnel;
 import appeng.util.Platform;
 
@@ -51,6 +52,7 @@ public final class P2PStateWailaDataProvider extends BasePartWailaDataProvider
 	private static final int STATE_INPUT = 2;
 	public static final String TAG_P2P_STATE = "p2p_state";
 	public static final String TAG_P2P_FREQUENCY = "p2p_frequency";
+	public static final String TAG_P2P_THROUGHPUT = "p2p_throughput";
 
 	/**
 	 * Adds state to the tooltip
@@ -93,6 +95,11 @@ public final class P2PStateWailaDataProvider extends BasePartWailaDataProvider
 				final short freq = nbtData.getShort( TAG_P2P_FREQUENCY );
 				final String freqTooltip = Platform.p2p().toHexString( freq );
 				currentToolTip.add( I18n.translateToLocalFormatted( "gui.tooltips.appliedenergistics2.P2PFrequency", freqTooltip ) );
+
+				if( nbtData.hasKey( TAG_P2P_THROUGHPUT ) )
+				{
+					currentToolTip.add( String.format( WailaText.P2PThroughput.getLocal(), nbtData.getFloat( TAG_P2P_THROUGHPUT ) ) );
+				}
 			}
 		}
 
@@ -142,6 +149,11 @@ public final class P2PStateWailaDataProvider extends BasePartWailaDataProvider
 					outputCount
 			} );
 
+			if( tunnel instanceof PartP2PItems && state != STATE_UNLINKED )
+			{
+				tag.setFloat( TAG_P2P_THROUGHPUT, ( (PartP2PItems) tunnel ).getThroughput() );
+			}
+
 		}
 
 		return tag;
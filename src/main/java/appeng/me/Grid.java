@@ -19,9 +19,12 @@
 package appeng.me;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -43,6 +46,12 @@ import appeng.util.ReadOnlyCollection;
 
 public class Grid implements IGrid
 {
+	/**
+	 * Transfers up to this many nodes move one node at a time, keeping the incremental updates of the caches and the
+	 * per node order of events.
+	 */
+	private static final int MIN_BATCH_SIZE = 16;
+
 	private final NetworkEventBus eventBus = new NetworkEventBus();
 	private final Map<Class<? extends IGridHost>, MachineSet> machines = new HashMap<>();
 	private final Map<Class<? extends IGridCache>, GridCacheWrapper> caches = new HashMap<>();
@@ -209,6 +218,93 @@ public class Grid implements IGrid
 		// postEventTo( gridNode, networkChanged );
 	}
 
+	/**
+	 * Moves nodes from their current grids into this one. Unlike {@link GridNode#setGrid} for each node, every cache
+	 * gets one batch for the nodes leaving each old grid and one for the nodes joining this grid. Small transfers, like
+	 * a placed cable joining a network, still use {@link GridNode#setGrid}.
+	 */
+	void transfer( final Collection<GridNode> nodes )
+	{
+		final Map<Grid, List<GridNode>> sources = new IdentityHashMap<>();
+		final List<GridNode> moved = new ArrayList<>( nodes.size() );
+
+		for( final GridNode node : nodes )
+		{
+			final Grid source = node.getMyGrid();
+
+			if( source != this )
+			{
+				moved.add( node );
+
+				if( source != null )
+				{
+					sources.computeIfAbsent( source, s -> new ArrayList<>() ).add( node );
+				}
+			}
+		}
+
+		if( moved.isEmpty() )
+		{
+			return;
+		}
+
+		if( moved.size() <= MIN_BATCH_SIZE )
+		{
+			for( final GridNode node : moved )
+			{
+				node.setGrid( this );
+			}
+
+			return;
+		}
+
+		for( final Entry<Grid, List<GridNode>> e : sources.entrySet() )
+		{
+			final Grid source = e.getKey();
+
+			source.beginBatch();
+			for( final GridNode node : e.getValue() )
+			{
+				source.remove( node );
+			}
+			source.endBatch();
+
+			if( source.isEmpty() )
+			{
+				source.saveState();
+
+				for( final IGridCache c : this.caches.values() )
+				{
+					c.onJoin( source.getMyStorage() );
+				}
+			}
+		}
+
+		this.beginBatch();
+		for( final GridNode node : moved )
+		{
+			node.setMyGrid( this );
+			this.add( node );
+		}
+		this.endBatch();
+	}
+
+	private void beginBatch()
+	{
+		for( final GridCacheWrapper c : this.caches.values() )
+		{
+			c.beginBatch();
+		}
+	}
+
+	private void endBatch()
+	{
+		for( final GridCacheWrapper c : this.caches.values() )
+		{
+			c.endBatch();
+		}
+	}
+
 	@Override
 	@SuppressWarnings( "unchecked" )
 	public <C extends IGridCache> C getCache( final Class<? extends IGridCache> iface )
@@ -23,6 +23,7 @@ import appeng.api.networking.IGridCache;
 import appeng.api.networking.IGridHost;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridStorage;
+import appeng.me.cache.helpers.IBatchedGridCache;
 
 
 public class GridCacheWrapper implements IGridCache
@@ -73,6 +74,22 @@ public class GridCacheWrapper implements IGridCache
 		this.getCache().populateGridStorage( storage );
 	}
 
+	void beginBatch()
+	{
+		if( this.myCache instanceof IBatchedGridCache )
+		{
+			( (IBatchedGridCache) this.myCache ).beginBatch();
+		}
+	}
+
+	void endBatch()
+	{
+		if( this.myCache instanceof IBatchedGridCache )
+		{
+			( (IBatchedGridCache) this.myCache ).endBatch();
+		}
+	}
+
 	public String getName()
 	{
 		return this.name;
@@ -37,6 +37,7 @@ import appeng.api.util.IReadOnlyCollection;
 import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.features.AEFeature;
+import appeng.me.cache.PathGridCache;
 import appeng.me.pathfinding.IPathItem;
 import appeng.util.Platform;
 import appeng.util.ReadOnlyCollection;
@@ -102,9 +103,9 @@ public class GridConnection implements IGridConnection, IPathItem
 	@Override
 	public void destroy()
 	{
-		// a connection was destroyed RE-PATH!!
-		final IPathingGrid p = this.sideA.getInternalGrid().getCache( IPathingGrid.class );
-		p.repath();
+		// a connection was destroyed, release the channels routed through it or RE-PATH!!
+		final PathGridCache p = this.sideA.getInternalGrid().getCache( IPathingGrid.class );
+		p.onConnectionDestroyed( this );
 
 		this.sideA.removeConnection( this );
 		this.sideB.removeConnection( this );
@@ -272,31 +273,49 @@ public class GridConnection implements IGridConnection, IPathItem
 			{
 				final GridPropagator gp = new GridPropagator( b.getInternalGrid() );
 				aNode.beginVisit( gp );
+				gp.propagate();
 			}
 			else if( b.getMyGrid() == null )
 			{
 				final GridPropagator gp = new GridPropagator( a.getInternalGrid() );
 				bNode.beginVisit( gp );
+				gp.propagate();
 			}
 			else if( connection.isNetworkABetter( a, b ) )
 			{
 				final GridPropagator gp = new GridPropagator( a.getInternalGrid() );
 				b.beginVisit( gp );
+				gp.propagate();
 			}
 			else
 			{
 				final GridPropagator gp = new GridPropagator( b.getInternalGrid() );
 				a.beginVisit( gp );
+				gp.propagate();
 			}
 		}
 
-		// a connection was destroyed RE-PATH!!
-		final IPathingGrid p = connection.sideA.getInternalGrid().getCache( IPathingGrid.class );
-		p.repath();
+		// adding a connection re-sorts the connections, keep the current routes so the tree stays intact.
+		final IPathItem routeA = connection.sideA.getControllerRoute();
+		final IPathItem routeB = connection.sideB.getControllerRoute();
 
 		connection.sideA.addConnection( connection );
 		connection.sideB.addConnection( connection );
 
+		if( routeA != null )
+		{
+			connection.sideA.setControllerRoute( routeA, false );
+		}
+
+		if( routeB != null )
+		{
+			connection.sideB.setControllerRoute( routeB, false );
+		}
+
+		// a connection was created, extend the channel tree or RE-PATH!!
+		final PathGridCache p = connection.sideA.getInternalGrid().getCache( IPathingGrid.class );
+		p.onConnectionCreated( connection );
+
 		return connection;
 	}
 }
@@ -144,8 +144,9 @@ public class GridNode implements IGridNode, IPathItem
 		this.beginVisit( gsd );
 		if( !gsd.isPivotFound() )
 		{
-			final IGridVisitor gp = new GridPropagator( new Grid( this ) );
+			final GridPropagator gp = new GridPropagator( new Grid( this ) );
 			this.beginVisit( gp );
+			gp.propagate();
 		}
 	}
 
@@ -261,6 +262,14 @@ public class GridNode implements IGridNode, IPathItem
 		this.myGrid.add( this );
 	}
 
+	/**
+	 * Only for {@link Grid#transfer}, which removes and adds the node itself.
+	 */
+	void setMyGrid( final Grid grid )
+	{
+		this.myGrid = grid;
+	}
+
 	@Override
 	public void destroy()
 	{
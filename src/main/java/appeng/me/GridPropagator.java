@@ -19,13 +19,21 @@
 package appeng.me;
 
 
+import java.util.ArrayList;
+import java.util.List;
+
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridVisitor;
 
 
+/**
+ * Collects the nodes which have to join a grid, {@link #propagate()} moves them in a single batch once the visit is
+ * done.
+ */
 public class GridPropagator implements IGridVisitor
 {
 	private final Grid g;
+	private final List<GridNode> nodes = new ArrayList<>();
 
 	public GridPropagator( final Grid g )
 	{
@@ -38,10 +46,16 @@ public class GridPropagator implements IGridVisitor
 		final GridNode gn = (GridNode) n;
 		if( gn.getMyGrid() != this.g || this.g.getPivot() == n )
 		{
-			gn.setGrid( this.g );
+			this.nodes.add( gn );
 
 			return true;
 		}
 		return false;
 	}
+
+	public void propagate()
+	{
+		this.g.transfer( this.nodes );
+		this.nodes.clear();
+	}
 }
@@ -61,11 +61,11 @@ public class GridStorage implements IGridStorage
 	/**
 	 * for use with world settings
 	 *
-	 * @param input array of bytes string
+	 * @param input compressed nbt data
 	 * @param id ID of grid storage
 	 * @param gss grid storage search
 	 */
-	public GridStorage( final String input, final long id, final GridStorageSearch gss )
+	public GridStorage( final byte[] input, final long id, final GridStorageSearch gss )
 	{
 		this.myID = id;
 		this.mySearchEntry = gss;
@@ -73,8 +73,7 @@ public class GridStorage implements IGridStorage
 
 		try
 		{
-			final byte[] byteData = javax.xml.bind.DatatypeConverter.parseBase64Binary( input );
-			myTag = CompressedStreamTools.readCompressed( new ByteArrayInputStream( byteData ) );
+			myTag = CompressedStreamTools.readCompressed( new ByteArrayInputStream( input ) );
 		}
 		catch( final Throwable t )
 		{
@@ -94,7 +93,10 @@ public class GridStorage implements IGridStorage
 		this.data = new NBTTagCompound();
 	}
 
-	public String getValue()
+	/**
+	 * @return the compressed nbt data, or null if it could not be written.
+	 */
+	public byte[] getValue()
 	{
 		final Grid currentGrid = (Grid) this.getGrid();
 		if( currentGrid != null )
@@ -106,14 +108,14 @@ public class GridStorage implements IGridStorage
 		{
 			final ByteArrayOutputStream out = new ByteArrayOutputStream();
 			CompressedStreamTools.writeCompressed( this.data, out );
-			return javax.xml.bind.DatatypeConverter.printBase64Binary( out.toByteArray() );
+			return out.toByteArray();
 		}
 		catch( final IOException e )
 		{
 			AELog.debug( e );
 		}
 
-		return "";
+		return null;
 	}
 
 	public IGrid getGrid()
@@ -32,15 +32,19 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multiset;
 
 import net.minecraft.world.World;
 
@@ -77,10 +81,13 @@ import appeng.api.storage.channels.IItemStorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
+import appeng.core.AELog;
 import appeng.crafting.CraftingJob;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingLinkNexus;
 import appeng.crafting.CraftingWatcher;
+import appeng.me.cache.helpers.IBatchedGridCache;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.me.helpers.BaseActionSource;
 import appeng.me.helpers.GenericInterestManager;
@@ -88,7 +95,7 @@ import appeng.tile.crafting.TileCraftingStorageTile;
 import appeng.tile.crafting.TileCraftingTile;
 
 
-public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper, ICellProvider, IMEInventoryHandler<IAEItemStack>
+public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper, ICellProvider, IMEInventoryHandler<IAEItemStack>, IBatchedGridCache
 {
 
 	private static final ExecutorService CRAFTING_POOL;
@@ -97,23 +104,32 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 	static
 	{
 		final ThreadFactory factory = ar -> new Thread( ar, "AE Crafting Calculator" );
+		final int threads = Math.max( 1, AEConfig.instance().getCraftingCalculationThreads() );
 
-		CRAFTING_POOL = Executors.newCachedThreadPool( factory );
+		// jobs waiting for a thread have not registered with the tick handler yet, so they do not slow down running ones.
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor( threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory );
+		pool.allowCoreThreadTimeOut( true );
+
+		CRAFTING_POOL = pool;
 	}
 
 	private final Set<CraftingCPUCluster> craftingCPUClusters = new HashSet<>();
-	private final Set<ICraftingProvider> craftingProviders = new HashSet<>();
+	private final Map<ICraftingProvider, ProviderPatterns> providerPatterns = new HashMap<>();
 	private final Map<IGridNode, ICraftingWatcher> craftingWatchers = new HashMap<>();
 	private final IGrid grid;
 	private final Map<ICraftingPatternDetails, List<ICraftingMedium>> craftingMethods = new HashMap<>();
 	private final Map<IAEItemStack, ImmutableList<ICraftingPatternDetails>> craftableItems = new HashMap<>();
-	private final Set<IAEItemStack> emitableItems = new HashSet<>();
+	private final Map<IAEItemStack, Set<ICraftingPatternDetails>> patternsByOutput = new HashMap<>();
+	private final Multiset<IAEItemStack> emitableItems = HashMultiset.create();
 	private final Map<String, CraftingLinkNexus> craftingLinks = new HashMap<>();
 	private final Multimap<IAEStack, CraftingWatcher> interests = HashMultimap.create();
 	private final GenericInterestManager<CraftingWatcher> interestManager = new GenericInterestManager<>( this.interests );
 	private IStorageGrid storageGrid;
 	private IEnergyGrid energyGrid;
 	private boolean updateList = false;
+	private ProviderPatterns collecting;
+	// providers which joined or left during a batch, and whether they are still present.
+	private Map<ICraftingProvider, Boolean> batchedProviders;
 
 	public CraftingGridCache( final IGrid grid )
 	{
@@ -184,8 +200,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 
 		if( machine instanceof ICraftingProvider )
 		{
-			this.craftingProviders.remove( machine );
-			this.updatePatterns();
+			this.providerChanged( (ICraftingProvider) machine, false );
 		}
 	}
 
@@ -218,8 +233,47 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 
 		if( machine instanceof ICraftingProvider )
 		{
-			this.craftingProviders.add( (ICraftingProvider) machine );
-			this.updatePatterns();
+			this.providerChanged( (ICraftingProvider) machine, true );
+		}
+	}
+
+	@Override
+	public void beginBatch()
+	{
+		this.batchedProviders = new HashMap<>();
+	}
+
+	@Override
+	public void endBatch()
+	{
+		final Map<ICraftingProvider, Boolean> providers = this.batchedProviders;
+		this.batchedProviders = null;
+
+		if( providers == null || providers.isEmpty() )
+		{
+			return;
+		}
+
+		final Map<IAEItemStack, Boolean> touched = new HashMap<>();
+		final Set<IAEItemStack> dirty = new HashSet<>();
+
+		for( final Entry<ICraftingProvider, Boolean> e : providers.entrySet() )
+		{
+			this.replacePatterns( e.getKey(), e.getValue() ? this.collectPatterns( e.getKey() ) : null, touched, dirty );
+		}
+
+		this.commitPatternChanges( touched, dirty );
+	}
+
+	private void providerChanged( final ICraftingProvider provider, final boolean present )
+	{
+		if( this.batchedProviders != null )
+		{
+			this.batchedProviders.put( provider, present );
+		}
+		else
+		{
+			this.updatePatterns( provider, present );
 		}
 	}
 
@@ -240,57 +294,178 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		// nothing!
 	}
 
+	/**
+	 * Re-asks every provider for its patterns.
+	 */
 	private void updatePatterns()
 	{
-		final Map<IAEItemStack, ImmutableList<ICraftingPatternDetails>> oldItems = this.craftableItems;
+		final Map<IAEItemStack, Boolean> touched = new HashMap<>();
+		final Set<IAEItemStack> dirty = new HashSet<>();
+
+		for( final ICraftingProvider provider : new ArrayList<>( this.providerPatterns.keySet() ) )
+		{
+			this.replacePatterns( provider, this.collectPatterns( provider ), touched, dirty );
+		}
+
+		this.commitPatternChanges( touched, dirty );
+	}
+
+	/**
+	 * Only diffs the patterns of a single provider against the current index.
+	 *
+	 * @param provider the provider which was added, removed or changed its patterns.
+	 * @param present false if the provider left the grid.
+	 */
+	private void updatePatterns( final ICraftingProvider provider, final boolean present )
+	{
+		final Map<IAEItemStack, Boolean> touched = new HashMap<>();
+		final Set<IAEItemStack> dirty = new HashSet<>();
 
-		// erase list.
-		this.craftingMethods.clear();
-		this.craftableItems.clear();
-		this.emitableItems.clear();
+		this.replacePatterns( provider, present ? this.collectPatterns( provider ) : null, touched, dirty );
+		this.commitPatternChanges( touched, dirty );
+	}
 
-		// update the stuff that was in the list...
-		this.storageGrid.postAlterationOfStoredItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ), oldItems.keySet(),
-				new BaseActionSource() );
+	private ProviderPatterns collectPatterns( final ICraftingProvider provider )
+	{
+		this.collecting = new ProviderPatterns();
 
-		// re-create list..
-		for( final ICraftingProvider provider : this.craftingProviders )
+		try
 		{
 			provider.provideCrafting( this );
+			return this.collecting;
 		}
+		finally
+		{
+			this.collecting = null;
+		}
+	}
 
-		final Map<IAEItemStack, Set<ICraftingPatternDetails>> tmpCraft = new HashMap<>();
+	private void replacePatterns( final ICraftingProvider provider, final ProviderPatterns patterns, final Map<IAEItemStack, Boolean> touched, final Set<IAEItemStack> dirty )
+	{
+		final ProviderPatterns old = patterns == null ? this.providerPatterns.remove( provider ) : this.providerPatterns.put( provider, patterns );
 
-		// new craftables!
-		for( final ICraftingPatternDetails details : this.craftingMethods.keySet() )
+		if( old != null )
 		{
-			for( IAEItemStack out : details.getOutputs() )
+			for( int x = 0; x < old.details.size(); x++ )
+			{
+				final ICraftingPatternDetails details = old.details.get( x );
+				final List<ICraftingMedium> mediums = this.craftingMethods.get( details );
+
+				if( mediums != null && mediums.remove( old.mediums.get( x ) ) && mediums.isEmpty() )
+				{
+					this.craftingMethods.remove( details );
+
+					for( final IAEItemStack out : details.getOutputs() )
+					{
+						final IAEItemStack key = this.touchOutput( out, touched, dirty );
+						final Set<ICraftingPatternDetails> methods = this.patternsByOutput.get( key );
+
+						if( methods != null && methods.remove( details ) && methods.isEmpty() )
+						{
+							this.patternsByOutput.remove( key );
+						}
+					}
+				}
+			}
+
+			for( final IAEItemStack what : old.emitable )
 			{
-				out = out.copy();
-				out.reset();
-				out.setCraftable( true );
+				touched.putIfAbsent( what, this.isCraftableKey( what ) );
+				this.emitableItems.remove( what );
+			}
+		}
 
-				Set<ICraftingPatternDetails> methods = tmpCraft.get( out );
+		if( patterns != null )
+		{
+			for( int x = 0; x < patterns.details.size(); x++ )
+			{
+				final ICraftingPatternDetails details = patterns.details.get( x );
+				List<ICraftingMedium> mediums = this.craftingMethods.get( details );
 
-				if( methods == null )
+				if( mediums == null )
 				{
-					tmpCraft.put( out, methods = new TreeSet<>( COMPARATOR ) );
+					this.craftingMethods.put( details, mediums = new ArrayList<>() );
+
+					for( final IAEItemStack out : details.getOutputs() )
+					{
+						final IAEItemStack key = this.touchOutput( out, touched, dirty );
+						this.patternsByOutput.computeIfAbsent( key, k -> new HashSet<>() ).add( details );
+					}
 				}
 
-				methods.add( details );
+				mediums.add( patterns.mediums.get( x ) );
+			}
+
+			for( final IAEItemStack what : patterns.emitable )
+			{
+				touched.putIfAbsent( what, this.isCraftableKey( what ) );
+				this.emitableItems.add( what );
+			}
+		}
+	}
+
+	private IAEItemStack touchOutput( final IAEItemStack out, final Map<IAEItemStack, Boolean> touched, final Set<IAEItemStack> dirty )
+	{
+		final IAEItemStack key = out.copy();
+		key.reset();
+		key.setCraftable( true );
+
+		touched.putIfAbsent( key, this.isCraftableKey( key ) );
+		dirty.add( key );
+		return key;
+	}
+
+	/**
+	 * Rebuilds the craftable entries of the changed outputs and posts the items which became craftable or stopped
+	 * being craftable.
+	 */
+	private void commitPatternChanges( final Map<IAEItemStack, Boolean> touched, final Set<IAEItemStack> dirty )
+	{
+		for( final IAEItemStack key : dirty )
+		{
+			final Set<ICraftingPatternDetails> methods = this.patternsByOutput.get( key );
+
+			if( methods == null )
+			{
+				this.craftableItems.remove( key );
+			}
+			else
+			{
+				final Set<ICraftingPatternDetails> sorted = new TreeSet<>( COMPARATOR );
+				sorted.addAll( methods );
+				this.craftableItems.put( key, ImmutableList.copyOf( sorted ) );
 			}
 		}
 
-		// make them immutable
-		for( final Entry<IAEItemStack, Set<ICraftingPatternDetails>> e : tmpCraft.entrySet() )
+		final List<IAEItemStack> changed = new ArrayList<>();
+		for( final Entry<IAEItemStack, Boolean> e : touched.entrySet() )
 		{
-			this.craftableItems.put( e.getKey(), ImmutableList.copyOf( e.getValue() ) );
+			if( e.getValue() != this.isCraftableKey( e.getKey() ) )
+			{
+				changed.add( e.getKey() );
+			}
 		}
 
-		this.storageGrid.postAlterationOfStoredItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ), this.craftableItems.keySet(),
+		if( changed.isEmpty() )
+		{
+			return;
+		}
+
+		// the craftable state can not be expressed as a stack size change.
+		if( this.storageGrid instanceof GridStorageCache )
+		{
+			( (GridStorageCache) this.storageGrid ).invalidateStorageList( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ) );
+		}
+
+		this.storageGrid.postAlterationOfStoredItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ), changed,
 				new BaseActionSource() );
 	}
 
+	private boolean isCraftableKey( final IAEItemStack key )
+	{
+		return this.craftableItems.containsKey( key ) || this.emitableItems.contains( key );
+	}
+
 	private void updateCPUClusters()
 	{
 		this.craftingCPUClusters.clear();
@@ -337,29 +512,49 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 	@MENetworkEventSubscribe
 	public void updateCPUClusters( final MENetworkCraftingPatternChange c )
 	{
-		this.updatePatterns();
+		if( c.provider != null && this.providerPatterns.containsKey( c.provider ) )
+		{
+			this.updatePatterns( c.provider, true );
+		}
+		else
+		{
+			this.updatePatterns();
+		}
 	}
 
 	@Override
 	public void addCraftingOption( final ICraftingMedium medium, final ICraftingPatternDetails api )
 	{
-		List<ICraftingMedium> details = this.craftingMethods.get( api );
-		if( details == null )
+		// only valid while a provider is asked for its patterns
+		if( this.collecting == null )
 		{
-			details = new ArrayList<>();
-			details.add( medium );
-			this.craftingMethods.put( api, details );
-		}
-		else
-		{
-			details.add( medium );
+			rejectOutsideProvide( "addCraftingOption" );
+			return;
 		}
+
+		this.collecting.details.add( api );
+		this.collecting.mediums.add( medium );
 	}
 
 	@Override
 	public void setEmitable( final IAEItemStack someItem )
 	{
-		this.emitableItems.add( someItem.copy() );
+		if( this.collecting == null )
+		{
+			rejectOutsideProvide( "setEmitable" );
+			return;
+		}
+
+		this.collecting.emitable.add( someItem.copy() );
+	}
+
+	/**
+	 * Patterns are owned by the provider which is being asked for them, a call from anywhere else could never be
+	 * removed again. The stack trace shows the caller.
+	 */
+	private static void rejectOutsideProvide( final String method )
+	{
+		AELog.warn( new IllegalStateException( method + " called outside of ICraftingProvider.provideCrafting" ), "Ignored crafting pattern registration" );
 	}
 
 	@Override
@@ -422,11 +617,24 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 	@Override
 	public IAEItemStack injectItems( IAEItemStack input, final Actionable type, final IActionSource src )
 	{
+		final long size = input == null ? 0 : input.getStackSize();
+		final IAEItemStack original = input;
+
 		for( final CraftingCPUCluster cpu : this.craftingCPUClusters )
 		{
 			input = cpu.injectItems( input, type, src );
 		}
 
+		final long taken = size - ( input == null ? 0 : input.getStackSize() );
+
+		if( type == Actionable.MODULATE && taken > 0 && this.storageGrid instanceof GridStorageCache )
+		{
+			// these never reach a cell, keep them out of the cached storage list.
+			final IAEItemStack diverted = original.copy();
+			diverted.setStackSize( taken );
+			( (GridStorageCache) this.storageGrid ).onInjectionDiverted( this.getChannel(), diverted );
+		}
+
 		return input;
 	}
 
@@ -445,7 +653,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			out.addCrafting( stack );
 		}
 
-		for( final IAEItemStack st : this.emitableItems )
+		for( final IAEItemStack st : this.emitableItems.elementSet() )
 		{
 			out.addCrafting( st );
 		}
@@ -509,6 +717,12 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			return null;
 		}
 
+		// the plan was calculated from an earlier state of the grid, its patterns might be gone by now.
+		if( job instanceof CraftingJob && !( (CraftingJob) job ).isPlanValid( this ) )
+		{
+			return null;
+		}
+
 		CraftingCPUCluster cpuCluster = null;
 
 		if( target instanceof CraftingCPUCluster )
@@ -662,4 +876,14 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			// no..
 		}
 	}
+
+	/**
+	 * The patterns and emitable items a single provider contributed to the grid.
+	 */
+	private static class ProviderPatterns
+	{
+		private final List<ICraftingPatternDetails> details = new ArrayList<>();
+		private final List<ICraftingMedium> mediums = new ArrayList<>();
+		private final List<IAEItemStack> emitable = new ArrayList<>();
+	}
 }
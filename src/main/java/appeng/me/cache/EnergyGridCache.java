@@ -19,18 +19,20 @@
 package appeng.me.cache;
 
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.NavigableSet;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 
-import appeng.core.AELog;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
@@ -76,6 +78,11 @@ public class EnergyGridCache implements IEnergyGrid
 		return Double.compare( percent1, percent2 );
 	};
 
+	/**
+	 * bumped whenever the providers of any grid change, the provider graph of a grid can reach into other grids.
+	 */
+	private static int providerGraphVersion = 0;
+
 	private final NavigableSet<EnergyThreshold> interests = Sets.newTreeSet();
 	private final double averageLength = 40.0;
 	private final Set<IAEPowerStorage> providers = new LinkedHashSet<>();
@@ -108,11 +115,19 @@ public class EnergyGridCache implements IEnergyGrid
 	private long ticksSinceHasPowerChange = 900;
 
 	/**
-	 * used by workaround
+	 * snapshots of the providers and requesters, iterating these allows the storages to post events while being used.
 	 */
-	private boolean isModifiedProviders = false;
-	private final Set<IAEPowerStorage> processedProviders = new HashSet<>();
+	private IAEPowerStorage[] providerArray;
+	private IAEPowerStorage[] requesterArray;
 
+	/**
+	 * every provider reachable from this grid with this grid first, in the order of the last sort.
+	 */
+	private int graphVersion = -1;
+	private IEnergyGridProvider[] extractOrder;
+	private IEnergyGridProvider[] injectOrder;
+	private boolean extractOrderSorted;
+	private boolean injectOrderSorted;
 
 	private PathGridCache pgc;
 	private double lastStoredPower = -1;
@@ -156,14 +171,13 @@ public class EnergyGridCache implements IEnergyGrid
 				case PROVIDE_POWER:
 					if( ev.storage.getPowerFlow() != AccessRestriction.WRITE )
 					{
-						this.providers.add( ev.storage );
-						isModifiedProviders = true;
+						this.addProvider( ev.storage );
 					}
 					break;
 				case REQUEST_POWER:
 					if( ev.storage.getPowerFlow() != AccessRestriction.READ )
 					{
-						this.requesters.add( ev.storage );
+						this.addRequester( ev.storage );
 					}
 					break;
 			}
@@ -177,6 +191,10 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public void onUpdateTick()
 	{
+		// stored amounts changed, sort the provider graph again when it is used.
+		this.extractOrderSorted = false;
+		this.injectOrderSorted = false;
+
 		if( !this.interests.isEmpty() )
 		{
 			final double oldPower = this.lastStoredPower;
@@ -237,35 +255,215 @@ public class EnergyGridCache implements IEnergyGrid
 		}
 
 		this.availableTicksSinceUpdate++;
+
+		this.reserveLocalPower();
+	}
+
+	/**
+	 * Tops up the local buffer from the storages of this grid, draws it can cover skip walking the provider graph. The
+	 * power is only moved inside the grid, so it does not count as drain.
+	 */
+	private void reserveLocalPower()
+	{
+		final double missing = MAX_BUFFER_STORAGE - this.localStorage.getAECurrentPower();
+
+		if( missing < 1 )
+		{
+			return;
+		}
+
+		double reserved = 0;
+		for( final IAEPowerStorage node : this.getProviderArray() )
+		{
+			if( node == this.localStorage )
+			{
+				continue;
+			}
+
+			final double req = missing - reserved;
+			final double newPower = node.extractAEPower( req, Actionable.MODULATE, PowerMultiplier.ONE );
+			reserved += newPower;
+
+			if( newPower < req )
+			{
+				this.removeProvider( node );
+			}
+			else
+			{
+				break;
+			}
+		}
+
+		if( reserved > 0 )
+		{
+			this.localStorage.addCurrentAEPower( reserved );
+		}
 	}
 
 	@Override
 	public double extractAEPower( final double amt, final Actionable mode, final PowerMultiplier pm )
 	{
 		final double toExtract = pm.multiply( amt );
-		final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>( COMPARATOR_HIGHEST_AMOUNT_STORED_FIRST );
-		final Set<IEnergyGridProvider> visited = new HashSet<>();
+
+		// served by the reserved local buffer, as long as it does not run dry.
+		if( this.localStorage.getAECurrentPower() - toExtract > 0.01 && this.providers.contains( this.localStorage ) )
+		{
+			if( mode == Actionable.MODULATE )
+			{
+				this.localStorage.extractAEPower( toExtract, mode, PowerMultiplier.ONE );
+				this.globalAvailablePower -= toExtract;
+				this.tickDrainPerTick += toExtract;
+			}
+
+			return amt;
+		}
+
+		final IEnergyGridProvider[] order = this.getExtractOrder();
 
 		double extracted = 0;
+		for( int i = 0; i < order.length && extracted < toExtract; i++ )
+		{
+			extracted += order[i].extractProviderPower( toExtract - extracted, mode );
+		}
+
+		return pm.divide( extracted );
+	}
+
+	private IEnergyGridProvider[] getExtractOrder()
+	{
+		this.updateProviderGraph();
+
+		if( !this.extractOrderSorted )
+		{
+			Arrays.sort( this.extractOrder, 1, this.extractOrder.length, COMPARATOR_HIGHEST_AMOUNT_STORED_FIRST );
+			this.extractOrderSorted = true;
+		}
+
+		return this.extractOrder;
+	}
+
+	private IEnergyGridProvider[] getInjectOrder()
+	{
+		this.updateProviderGraph();
+
+		if( !this.injectOrderSorted )
+		{
+			Arrays.sort( this.injectOrder, 1, this.injectOrder.length, COMPARATOR_LOWEST_PERCENTAGE_FIRST );
+			this.injectOrderSorted = true;
+		}
+
+		return this.injectOrder;
+	}
+
+	/**
+	 * Collects every provider reachable from this grid, only after the providers of a grid changed.
+	 */
+	private void updateProviderGraph()
+	{
+		if( this.graphVersion == providerGraphVersion && this.extractOrder != null )
+		{
+			return;
+		}
+
+		final Set<IEnergyGridProvider> visited = Collections.newSetFromMap( new IdentityHashMap<>() );
+		final List<IEnergyGridProvider> graph = new ArrayList<>();
+		final Queue<IEnergyGridProvider> toVisit = new ArrayDeque<>();
+
+		visited.add( this );
 		toVisit.add( this );
 
-		while( !toVisit.isEmpty() && extracted < toExtract )
+		while( !toVisit.isEmpty() )
 		{
 			final IEnergyGridProvider next = toVisit.poll();
-			visited.add( next );
+			graph.add( next );
 
-			extracted += next.extractProviderPower( toExtract - extracted, mode );
+			for( final IEnergyGridProvider provider : next.providers() )
+			{
+				if( visited.add( provider ) )
+				{
+					toVisit.add( provider );
+				}
+			}
+		}
 
-			for( IEnergyGridProvider iEnergyGridProvider : next.providers() )
+		this.extractOrder = graph.toArray( new IEnergyGridProvider[graph.size()] );
+		this.injectOrder = this.extractOrder.clone();
+		this.extractOrderSorted = false;
+		this.injectOrderSorted = false;
+		this.graphVersion = providerGraphVersion;
+	}
+
+	private static void providerGraphChanged()
+	{
+		providerGraphVersion++;
+	}
+
+	private void addProvider( final IAEPowerStorage storage )
+	{
+		if( this.providers.add( storage ) )
+		{
+			this.providerArray = null;
+		}
+	}
+
+	private void removeProvider( final IAEPowerStorage storage )
+	{
+		if( this.providers.remove( storage ) )
+		{
+			this.providerArray = null;
+		}
+	}
+
+	private void addRequester( final IAEPowerStorage storage )
+	{
+		if( this.requesters.add( storage ) )
+		{
+			this.requesterArray = null;
+		}
+	}
+
+	private void removeRequester( final IAEPowerStorage storage )
+	{
+		if( this.requesters.remove( storage ) )
+		{
+			this.requesterArray = null;
+		}
+	}
+
+	private IAEPowerStorage[] getProviderArray()
+	{
+		if( this.providerArray == null )
+		{
+			// the local buffer goes last, it running dry means the grid is out of power.
+			final IAEPowerStorage[] array = new IAEPowerStorage[this.providers.size()];
+			int i = 0;
+			for( final IAEPowerStorage storage : this.providers )
 			{
-				if( !visited.contains( iEnergyGridProvider ) )
+				if( storage != this.localStorage )
 				{
-					toVisit.add( iEnergyGridProvider );
+					array[i++] = storage;
 				}
 			}
+
+			if( i < array.length )
+			{
+				array[i] = this.localStorage;
+			}
+
+			this.providerArray = array;
 		}
 
-		return pm.divide( extracted );
+		return this.providerArray;
+	}
+
+	private IAEPowerStorage[] getRequesterArray()
+	{
+		if( this.requesterArray == null )
+		{
+			this.requesterArray = this.requesters.toArray( new IAEPowerStorage[this.requesters.size()] );
+		}
+
+		return this.requesterArray;
 	}
 
 	@Override
@@ -310,41 +508,19 @@ public class EnergyGridCache implements IEnergyGrid
 	{
 		double extractedPower = 0;
 
-		Iterator<IAEPowerStorage> it = this.providers.iterator();
-
-		while( extractedPower < amt && it.hasNext() )
+		final IAEPowerStorage[] nodes = this.getProviderArray();
+		for( int i = 0; i < nodes.length && extractedPower < amt; i++ )
 		{
-			// at the start no provider is modified through other methods
-			isModifiedProviders = false;
-			final IAEPowerStorage node = it.next();
-			// if a node has been processed, skip it
-			if(processedProviders.contains(node)) continue;
-
+			final IAEPowerStorage node = nodes[i];
 			final double req = amt - extractedPower;
 			final double newPower = node.extractAEPower( req, mode, PowerMultiplier.ONE );
 			extractedPower += newPower;
 
 			if( newPower < req && mode == Actionable.MODULATE )
 			{
-				if(isModifiedProviders){
-					// providers has been modified
-					// remove the node from providers immediately
-					this.providers.remove(node);
-					// restart iteration
-					it = this.providers.iterator();
-					// print a log
-					AELog.warn("ConcurrentModificationException workaround triggered!");
-				}else{
-					// do things normally
-					it.remove();
-				}
-			}else{
-				// added processed node to a list to avoid duplication
-				processedProviders.add(node);
+				this.removeProvider( node );
 			}
 		}
-		// clear list
-		processedProviders.clear();
 
 		final double result = Math.min( extractedPower, amt );
 
@@ -367,16 +543,15 @@ public class EnergyGridCache implements IEnergyGrid
 	{
 		final double originalAmount = amt;
 
-		final Iterator<IAEPowerStorage> it = this.requesters.iterator();
-
-		while( amt > 0 && it.hasNext() )
+		final IAEPowerStorage[] nodes = this.getRequesterArray();
+		for( int i = 0; i < nodes.length && amt > 0; i++ )
 		{
-			final IAEPowerStorage node = it.next();
+			final IAEPowerStorage node = nodes[i];
 			amt = node.injectAEPower( amt, mode );
 
 			if( amt > 0 && mode == Actionable.MODULATE )
 			{
-				it.remove();
+				this.removeRequester( node );
 			}
 		}
 
@@ -395,10 +570,10 @@ public class EnergyGridCache implements IEnergyGrid
 	{
 		double required = 0;
 
-		final Iterator<IAEPowerStorage> it = this.requesters.iterator();
-		while( required < maxRequired && it.hasNext() )
+		final IAEPowerStorage[] nodes = this.getRequesterArray();
+		for( int i = 0; i < nodes.length && required < maxRequired; i++ )
 		{
-			final IAEPowerStorage node = it.next();
+			final IAEPowerStorage node = nodes[i];
 			if( node.getPowerFlow() != AccessRestriction.READ )
 			{
 				required += Math.max( 0.0, node.getAEMaxPower() - node.getAECurrentPower() );
@@ -429,26 +604,12 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public double injectPower( final double amt, final Actionable mode )
 	{
-		final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>( COMPARATOR_LOWEST_PERCENTAGE_FIRST );
-		final Set<IEnergyGridProvider> visited = new HashSet<>();
-		toVisit.add( this );
+		final IEnergyGridProvider[] order = this.getInjectOrder();
 
 		double leftover = amt;
-
-		while( !toVisit.isEmpty() && leftover > 0 )
+		for( int i = 0; i < order.length && leftover > 0; i++ )
 		{
-			final IEnergyGridProvider next = toVisit.poll();
-			visited.add( next );
-
-			leftover = next.injectProviderPower( leftover, mode );
-
-			for( IEnergyGridProvider iEnergyGridProvider : next.providers() )
-			{
-				if( !visited.contains( iEnergyGridProvider ) )
-				{
-					toVisit.add( iEnergyGridProvider );
-				}
-			}
+			leftover = order[i].injectProviderPower( leftover, mode );
 		}
 
 		return leftover;
@@ -474,26 +635,12 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public double getEnergyDemand( final double maxRequired )
 	{
-		final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>( COMPARATOR_LOWEST_PERCENTAGE_FIRST );
-		final Set<IEnergyGridProvider> visited = new HashSet<>();
-		toVisit.add( this );
+		final IEnergyGridProvider[] order = this.getInjectOrder();
 
 		double required = 0;
-
-		while( !toVisit.isEmpty() && required < maxRequired )
+		for( int i = 0; i < order.length && required < maxRequired; i++ )
 		{
-			final IEnergyGridProvider next = toVisit.poll();
-			visited.add( next );
-
-			required += next.getProviderEnergyDemand( maxRequired - required );
-
-			for( IEnergyGridProvider iEnergyGridProvider : next.providers() )
-			{
-				if( !visited.contains( iEnergyGridProvider ) )
-				{
-					toVisit.add( iEnergyGridProvider );
-				}
-			}
+			required += order[i].getProviderEnergyDemand( maxRequired - required );
 		}
 
 		return required;
@@ -517,6 +664,7 @@ public class EnergyGridCache implements IEnergyGrid
 		if( machine instanceof IEnergyGridProvider )
 		{
 			this.energyGridProviders.remove( machine );
+			providerGraphChanged();
 		}
 
 		// idle draw.
@@ -535,9 +683,8 @@ public class EnergyGridCache implements IEnergyGrid
 					this.globalAvailablePower -= ps.getAECurrentPower();
 				}
 
-				this.providers.remove( ps );
-				isModifiedProviders=true;
-				this.requesters.remove( ps );
+				this.removeProvider( ps );
+				this.removeRequester( ps );
 			}
 		}
 
@@ -559,6 +706,7 @@ public class EnergyGridCache implements IEnergyGrid
 		if( machine instanceof IEnergyGridProvider )
 		{
 			this.energyGridProviders.add( (IEnergyGridProvider) machine );
+			providerGraphChanged();
 		}
 
 		// idle draw...
@@ -584,13 +732,12 @@ public class EnergyGridCache implements IEnergyGrid
 				if( current > 0 && ps.getPowerFlow() != AccessRestriction.WRITE )
 				{
 					this.globalAvailablePower += current;
-					this.providers.add( ps );
-					isModifiedProviders=true;
+					this.addProvider( ps );
 				}
 
 				if( current < max && ps.getPowerFlow() != AccessRestriction.READ )
 				{
-					this.requesters.add( ps );
+					this.addRequester( ps );
 				}
 			}
 		}
@@ -693,9 +840,11 @@ public class EnergyGridCache implements IEnergyGrid
 
 		private void addCurrentAEPower( double amount )
 		{
+			final boolean wasEmpty = this.stored <= 0.01;
 			this.stored += amount;
 
-			if( this.stored > 0.01 )
+			// it only leaves the providers once it ran dry.
+			if( wasEmpty && this.stored > 0.01 )
 			{
 				EnergyGridCache.this.myGrid.postEvent( new MENetworkPowerStorage( this, PowerEventType.PROVIDE_POWER ) );
 			}
@@ -703,9 +852,11 @@ public class EnergyGridCache implements IEnergyGrid
 
 		private void removeCurrentAEPower( double amount )
 		{
+			final boolean wasFull = this.stored >= MAX_BUFFER_STORAGE - 0.001;
 			this.stored -= amount;
 
-			if( this.stored < MAX_BUFFER_STORAGE - 0.001 )
+			// it only leaves the requesters once it is full.
+			if( wasFull && this.stored < MAX_BUFFER_STORAGE - 0.001 )
 			{
 				EnergyGridCache.this.myGrid.postEvent( new MENetworkPowerStorage( this, PowerEventType.REQUEST_POWER ) );
 			}
@@ -50,6 +50,7 @@ import appeng.api.storage.IStorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.me.cache.helpers.IBatchedGridCache;
 import appeng.me.helpers.BaseActionSource;
 import appeng.me.helpers.GenericInterestManager;
 import appeng.me.helpers.MachineSource;
@@ -57,7 +58,7 @@ import appeng.me.storage.ItemWatcher;
 import appeng.me.storage.NetworkInventoryHandler;
 
 
-public class GridStorageCache implements IStorageGrid
+public class GridStorageCache implements IStorageGrid, IBatchedGridCache
 {
 
 	private final IGrid myGrid;
@@ -68,6 +69,9 @@ public class GridStorageCache implements IStorageGrid
 	private final HashMap<IGridNode, IStackWatcher> watchers = new HashMap<>();
 	private Map<IStorageChannel<? extends IAEStack>, NetworkInventoryHandler<?>> storageNetworks;
 	private Map<IStorageChannel<? extends IAEStack>, NetworkMonitor<?>> storageMonitors;
+	// cell changes of a batch, the cell array update is posted once at its end.
+	private CellChangeTracker batchTracker;
+	private boolean batchCellsChanged;
 
 	public GridStorageCache( final IGrid g )
 	{
@@ -90,13 +94,23 @@ public class GridStorageCache implements IStorageGrid
 		if( machine instanceof ICellContainer )
 		{
 			final ICellContainer cc = (ICellContainer) machine;
-			final CellChangeTracker tracker = new CellChangeTracker();
 
-			this.removeCellProvider( cc, tracker );
-			this.inactiveCellProviders.remove( cc );
-			this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
+			if( this.batchTracker != null )
+			{
+				this.removeCellProvider( cc, this.batchTracker );
+				this.inactiveCellProviders.remove( cc );
+				this.batchCellsChanged = true;
+			}
+			else
+			{
+				final CellChangeTracker tracker = new CellChangeTracker();
 
-			tracker.applyChanges();
+				this.removeCellProvider( cc, tracker );
+				this.inactiveCellProviders.remove( cc );
+				this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
+
+				tracker.applyChanges();
+			}
 		}
 
 		if( machine instanceof IStackWatcherHost )
@@ -119,14 +133,26 @@ public class GridStorageCache implements IStorageGrid
 			final ICellContainer cc = (ICellContainer) machine;
 			this.inactiveCellProviders.add( cc );
 
-			this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
+			if( this.batchTracker != null )
+			{
+				this.batchCellsChanged = true;
 
-			if( node.isActive() )
+				if( node.isActive() )
+				{
+					this.addCellProvider( cc, this.batchTracker );
+				}
+			}
+			else
 			{
-				final CellChangeTracker tracker = new CellChangeTracker();
+				this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
 
-				this.addCellProvider( cc, tracker );
-				tracker.applyChanges();
+				if( node.isActive() )
+				{
+					final CellChangeTracker tracker = new CellChangeTracker();
+
+					this.addCellProvider( cc, tracker );
+					tracker.applyChanges();
+				}
 			}
 		}
 
@@ -139,6 +165,31 @@ public class GridStorageCache implements IStorageGrid
 		}
 	}
 
+	@Override
+	public void beginBatch()
+	{
+		this.batchTracker = new CellChangeTracker();
+		this.batchCellsChanged = false;
+	}
+
+	@Override
+	public void endBatch()
+	{
+		final CellChangeTracker tracker = this.batchTracker;
+		this.batchTracker = null;
+
+		if( this.batchCellsChanged )
+		{
+			this.batchCellsChanged = false;
+			this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
+		}
+
+		if( tracker != null )
+		{
+			tracker.applyChanges();
+		}
+	}
+
 	@Override
 	public void onSplit( final IGridStorage storageB )
 	{
@@ -255,7 +306,28 @@ public class GridStorageCache implements IStorageGrid
 
 	private <T extends IAEStack<T>, C extends IStorageChannel<T>> void postChangesToNetwork( final C chan, final int upOrDown, final IItemList<T> availableItems, final IActionSource src )
 	{
-		this.storageMonitors.get( chan ).postChange( upOrDown > 0, (Iterable) availableItems, src );
+		final NetworkMonitor<?> monitor = this.storageMonitors.get( chan );
+
+		// a cell was added or removed, the only case which requires to walk all cells again.
+		monitor.invalidateStorageList();
+		monitor.postChange( upOrDown > 0, (Iterable) availableItems, src );
+	}
+
+	/**
+	 * Forces the cached storage list of a channel to be rebuilt from the cells, for changes which can not be expressed
+	 * as a stack size difference.
+	 */
+	void invalidateStorageList( final IStorageChannel<?> chan )
+	{
+		this.storageMonitors.get( chan ).invalidateStorageList();
+	}
+
+	/**
+	 * Part of an injection was taken by a crafting CPU or link instead of a cell.
+	 */
+	<T extends IAEStack<T>> void onInjectionDiverted( final IStorageChannel<T> chan, final T stack )
+	{
+		( (NetworkMonitor<T>) this.storageMonitors.get( chan ) ).onInjectionDiverted( stack );
 	}
 
 	private <T extends IAEStack<T>, C extends IStorageChannel<T>> NetworkInventoryHandler<T> buildNetworkStorage( final C chan )
@@ -0,0 +1,139 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridCache;
+import appeng.api.networking.IGridHost;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.IGridStorage;
+import appeng.api.networking.events.MENetworkBootingStatusChange;
+import appeng.api.networking.events.MENetworkChannelsChanged;
+import appeng.api.networking.events.MENetworkEventSubscribe;
+import appeng.api.networking.events.MENetworkPowerStatusChange;
+import appeng.helpers.IInterfaceHost;
+import appeng.me.cache.helpers.IInterfaceTerminalListener;
+
+
+/**
+ * Publishes interface changes to the open interface terminals, so they do not have to poll every interface of the grid
+ * each tick.
+ */
+public class InterfaceTerminalCache implements IGridCache
+{
+
+	// containers are not always closed properly, don't keep them alive.
+	private final Set<IInterfaceTerminalListener> listeners = Collections.newSetFromMap( new WeakHashMap<>() );
+
+	public InterfaceTerminalCache( final IGrid g )
+	{
+	}
+
+	public void addListener( final IInterfaceTerminalListener listener )
+	{
+		this.listeners.add( listener );
+	}
+
+	public void removeListener( final IInterfaceTerminalListener listener )
+	{
+		this.listeners.remove( listener );
+	}
+
+	public void interfaceChanged( final IInterfaceHost host )
+	{
+		for( final IInterfaceTerminalListener listener : new ArrayList<>( this.listeners ) )
+		{
+			listener.onInterfaceChanged( host );
+		}
+	}
+
+	private void interfacesChanged()
+	{
+		for( final IInterfaceTerminalListener listener : new ArrayList<>( this.listeners ) )
+		{
+			listener.onInterfacesChanged();
+		}
+	}
+
+	@MENetworkEventSubscribe
+	public void channelsChanged( final MENetworkChannelsChanged changed )
+	{
+		this.interfacesChanged();
+	}
+
+	@MENetworkEventSubscribe
+	public void powerChanged( final MENetworkPowerStatusChange changed )
+	{
+		this.interfacesChanged();
+	}
+
+	@MENetworkEventSubscribe
+	public void bootingChanged( final MENetworkBootingStatusChange changed )
+	{
+		this.interfacesChanged();
+	}
+
+	@Override
+	public void onUpdateTick()
+	{
+
+	}
+
+	@Override
+	public void removeNode( final IGridNode gridNode, final IGridHost machine )
+	{
+		if( machine instanceof IInterfaceHost )
+		{
+			this.interfacesChanged();
+		}
+	}
+
+	@Override
+	public void addNode( final IGridNode gridNode, final IGridHost machine )
+	{
+		if( machine instanceof IInterfaceHost )
+		{
+			this.interfacesChanged();
+		}
+	}
+
+	@Override
+	public void onSplit( final IGridStorage destinationStorage )
+	{
+
+	}
+
+	@Override
+	public void onJoin( final IGridStorage sourceStorage )
+	{
+
+	}
+
+	@Override
+	public void populateGridStorage( final IGridStorage destinationStorage )
+	{
+
+	}
+}
@@ -43,6 +43,8 @@ import appeng.api.storage.IMEMonitorHandlerReceiver;
 import appeng.api.storage.IStorageChannel;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
+import appeng.core.AELog;
 import appeng.me.storage.ItemWatcher;
 
 
@@ -59,11 +61,22 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 	private final IItemList<T> cachedList;
 	@Nonnull
 	private final Map<IMEMonitorHandlerReceiver<T>, Object> listeners;
+	/**
+	 * parts of the running injection which were taken by crafting CPUs or links and never reach a cell.
+	 */
+	@Nonnull
+	private final IItemList<T> diverted;
 
 	private boolean sendEvent = false;
-	private boolean hasChanged = false;
+	/**
+	 * true if {@link #cachedList} can no longer be kept up to date by applying the posted changes and has to be rebuilt
+	 * from the cells.
+	 */
+	private boolean hasChanged = true;
 	@Nonnegative
 	private int localDepthSemaphore = 0;
+	@Nonnegative
+	private int ticksSinceConsistencyCheck = 0;
 
 	public NetworkMonitor( final GridStorageCache cache, final IStorageChannel<T> chan )
 	{
@@ -71,6 +84,7 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		this.myChannel = chan;
 		this.cachedList = chan.createList();
 		this.listeners = new HashMap<>();
+		this.diverted = chan.createList();
 	}
 
 	@Override
@@ -101,6 +115,11 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		{
 			this.monitorDifference( request.copy(), leftover, true, src );
 		}
+		else if( GLOBAL_DEPTH.contains( this ) )
+		{
+			// changed by one of our own listeners, this difference is never posted.
+			this.hasChanged = true;
+		}
 
 		return leftover;
 	}
@@ -163,8 +182,14 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 		if( this.localDepthSemaphore == 0 )
 		{
+			this.excludeDiverted();
 			this.monitorDifference( input.copy(), leftover, false, src );
 		}
+		else if( GLOBAL_DEPTH.contains( this ) )
+		{
+			// changed by one of our own listeners, this difference is never posted.
+			this.hasChanged = true;
+		}
 
 		return leftover;
 	}
@@ -221,7 +246,6 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	private void notifyListenersOfChange( final Iterable<T> diff, final IActionSource src )
 	{
-		this.hasChanged = true;
 		final Iterator<Entry<IMEMonitorHandlerReceiver<T>, Object>> i = this.getListeners();
 
 		while( i.hasNext() )
@@ -248,6 +272,12 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 	{
 		if( this.localDepthSemaphore > 0 || GLOBAL_DEPTH.contains( this ) )
 		{
+			if( GLOBAL_DEPTH.contains( this ) )
+			{
+				// posted while notifying our own listeners, these changes are dropped.
+				this.hasChanged = true;
+			}
+
 			return;
 		}
 
@@ -256,6 +286,8 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 		this.sendEvent = true;
 
+		this.applyChangesToCachedList( add, changes );
+
 		this.notifyListenersOfChange( changes, src );
 
 		for( final T changedItem : changes )
@@ -303,6 +335,125 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		}
 	}
 
+	/**
+	 * Applies the changes to {@link #cachedList} instead of rebuilding it from every cell on the next read.
+	 */
+	private void applyChangesToCachedList( final boolean add, final Iterable<T> changes )
+	{
+		if( this.hasChanged )
+		{
+			// going to be rebuilt anyway.
+			return;
+		}
+
+		for( final T changedItem : changes )
+		{
+			if( changedItem == null )
+			{
+				continue;
+			}
+
+			if( add )
+			{
+				this.cachedList.addStorage( changedItem );
+			}
+			else
+			{
+				final T difference = changedItem.copy();
+				difference.setStackSize( -changedItem.getStackSize() );
+				this.cachedList.addStorage( difference );
+			}
+		}
+	}
+
+	/**
+	 * Called when an injection is taken by something which is not a cell, e.g. a crafting CPU waiting for the items.
+	 * The posted difference still contains it, but it must not end up in the cached list.
+	 */
+	void onInjectionDiverted( final T stack )
+	{
+		if( this.localDepthSemaphore > 0 )
+		{
+			this.diverted.add( stack.copy() );
+		}
+	}
+
+	/**
+	 * Takes the diverted amounts out of the cached list ahead of the difference which adds them back.
+	 */
+	private void excludeDiverted()
+	{
+		if( this.diverted.isEmpty() )
+		{
+			return;
+		}
+
+		if( !this.hasChanged )
+		{
+			for( final T stack : this.diverted )
+			{
+				final T difference = stack.copy();
+				difference.setStackSize( -stack.getStackSize() );
+				this.cachedList.addStorage( difference );
+			}
+		}
+
+		this.diverted.resetStatus();
+	}
+
+	/**
+	 * The changes posted next can not be applied to the cached list, e.g. because cells were added or removed or the
+	 * craftable state of items changed. Rebuilds the list on the next read.
+	 */
+	void invalidateStorageList()
+	{
+		this.hasChanged = true;
+	}
+
+	/**
+	 * Compares the incrementally updated list against a freshly built one and schedules a rebuild if they differ.
+	 */
+	private void verifyStorageList()
+	{
+		if( this.hasChanged )
+		{
+			return;
+		}
+
+		final IItemList<T> expected = this.getAvailableItems( this.myChannel.createList() );
+		boolean consistent = true;
+
+		for( final T stack : expected )
+		{
+			final T cached = this.cachedList.findPrecise( stack );
+
+			if( cached == null || cached.getStackSize() != stack.getStackSize() || cached.isCraftable() != stack.isCraftable() || cached
+					.getCountRequestable() != stack.getCountRequestable() )
+			{
+				consistent = false;
+				break;
+			}
+		}
+
+		if( consistent )
+		{
+			for( final T cached : this.cachedList )
+			{
+				if( expected.findPrecise( cached ) == null )
+				{
+					consistent = false;
+					break;
+				}
+			}
+		}
+
+		if( !consistent )
+		{
+			AELog.warn( "Cached storage list of %s is out of sync with the network, rebuilding it.", this.myGridCache.getGrid() );
+			this.hasChanged = true;
+		}
+	}
+
 	void forceUpdate()
 	{
 		this.hasChanged = true;
@@ -331,5 +482,13 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 			this.sendEvent = false;
 			this.myGridCache.getGrid().postEvent( new MENetworkStorageEvent( this, this.myChannel ) );
 		}
+
+		final int checkInterval = AEConfig.instance().getStorageListConsistencyCheckInterval();
+
+		if( checkInterval > 0 && ++this.ticksSinceConsistencyCheck >= checkInterval )
+		{
+			this.ticksSinceConsistencyCheck = 0;
+			this.verifyStorageList();
+		}
 	}
 }
@@ -19,7 +19,9 @@
 package appeng.me.cache;
 
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -52,6 +54,7 @@ import appeng.core.features.AEFeature;
 import appeng.core.stats.IAdvancementTrigger;
 import appeng.me.GridConnection;
 import appeng.me.GridNode;
+import appeng.me.cache.helpers.IBatchedGridCache;
 import appeng.me.pathfinding.AdHocChannelUpdater;
 import appeng.me.pathfinding.ControllerChannelUpdater;
 import appeng.me.pathfinding.ControllerValidator;
@@ -60,7 +63,7 @@ import appeng.me.pathfinding.PathSegment;
 import appeng.tile.networking.TileController;
 
 
-public class PathGridCache implements IPathingGrid
+public class PathGridCache implements IPathingGrid, IBatchedGridCache
 {
 
 	private final List<PathSegment> active = new ArrayList<>();
@@ -79,6 +82,17 @@ public class PathGridCache implements IPathingGrid
 	private int lastChannels = 0;
 	private HashSet<IPathItem> semiOpen = new HashSet<>();
 
+	// changes collected since the last tick which can be applied without a full repath
+	private final Set<IGridNode> addedNodes = new HashSet<>();
+	private final Set<IGridNode> removedNodes = new HashSet<>();
+	private final List<GridConnection> createdConnections = new ArrayList<>();
+	private final List<DetachedBranch> detachedBranches = new ArrayList<>();
+	private final Set<IPathItem> detachedItems = new HashSet<>();
+
+	// grids merging or splitting move too many nodes to patch the tree, repath once the batch is done.
+	private boolean batching = false;
+	private boolean batchChanged = false;
+
 	public PathGridCache( final IGrid g )
 	{
 		this.myGrid = g;
@@ -92,6 +106,16 @@ public class PathGridCache implements IPathingGrid
 			this.recalcController();
 		}
 
+		if( this.hasPendingChanges() )
+		{
+			if( !this.canUpdateIncrementally() || !this.applyPendingChanges() )
+			{
+				this.repath();
+			}
+
+			this.clearPendingChanges();
+		}
+
 		if( this.updateNetwork )
 		{
 			if( !this.booting )
@@ -223,7 +247,18 @@ public class PathGridCache implements IPathingGrid
 			this.blockDense.remove( gridNode );
 		}
 
-		this.repath();
+		if( this.batching )
+		{
+			this.batchChanged = true;
+		}
+		else if( this.canUpdateIncrementally() && isIncrementalCandidate( gridNode ) && !this.addedNodes.contains( gridNode ) )
+		{
+			this.removedNodes.add( gridNode );
+		}
+		else
+		{
+			this.repath();
+		}
 	}
 
 	@Override
@@ -247,7 +282,65 @@ public class PathGridCache implements IPathingGrid
 			this.blockDense.add( gridNode );
 		}
 
-		this.repath();
+		if( this.batching )
+		{
+			this.batchChanged = true;
+		}
+		else if( this.canUpdateIncrementally() && isIncrementalCandidate( gridNode ) && !this.removedNodes.contains( gridNode ) )
+		{
+			this.addedNodes.add( gridNode );
+		}
+		else
+		{
+			this.repath();
+		}
+	}
+
+	@Override
+	public void beginBatch()
+	{
+		this.batching = true;
+	}
+
+	@Override
+	public void endBatch()
+	{
+		this.batching = false;
+
+		if( this.batchChanged )
+		{
+			this.batchChanged = false;
+			this.repath();
+		}
+	}
+
+	/**
+	 * Called once a new connection has been added to both of its nodes.
+	 */
+	public void onConnectionCreated( final GridConnection connection )
+	{
+		final boolean newA = this.addedNodes.contains( connection.a() );
+		final boolean newB = this.addedNodes.contains( connection.b() );
+
+		if( this.canUpdateIncrementally() && ( newA || newB ) )
+		{
+			this.createdConnections.add( connection );
+		}
+		else
+		{
+			this.repath();
+		}
+	}
+
+	/**
+	 * Called right before a connection is removed from its nodes, while the channel tree is still intact.
+	 */
+	public void onConnectionDestroyed( final GridConnection connection )
+	{
+		if( !this.canUpdateIncrementally() || !this.detachBranch( connection ) )
+		{
+			this.repath();
+		}
 	}
 
 	@Override
@@ -419,6 +512,304 @@ public class PathGridCache implements IPathingGrid
 
 		this.setChannelsByBlocks( 0 );
 		this.updateNetwork = true;
+		this.clearPendingChanges();
+	}
+
+	/**
+	 * only networks which finished booting with an online controller keep a complete channel tree, which can be
+	 * patched instead of rebuilt.
+	 */
+	private boolean canUpdateIncrementally()
+	{
+		if( this.updateNetwork || this.booting || this.recalculateControllerNextTick )
+		{
+			return false;
+		}
+
+		return this.controllerState == ControllerState.CONTROLLER_ONLINE && AEConfig.instance().isFeatureEnabled( AEFeature.CHANNELS );
+	}
+
+	/**
+	 * controllers, multiblocks and nodes which cannot carry channels change more than a single branch of the tree.
+	 */
+	private static boolean isIncrementalCandidate( final IGridNode node )
+	{
+		final EnumSet<GridFlags> flags = node.getGridBlock().getFlags();
+		return !( node.getMachine() instanceof TileController ) && !flags.contains( GridFlags.MULTIBLOCK ) && !flags.contains( GridFlags.CANNOT_CARRY );
+	}
+
+	private boolean hasPendingChanges()
+	{
+		return !this.addedNodes.isEmpty() || !this.removedNodes.isEmpty() || !this.createdConnections.isEmpty() || !this.detachedBranches.isEmpty();
+	}
+
+	private void clearPendingChanges()
+	{
+		this.addedNodes.clear();
+		this.removedNodes.clear();
+		this.createdConnections.clear();
+		this.detachedBranches.clear();
+		this.detachedItems.clear();
+	}
+
+	/**
+	 * Records the branch of the channel tree which hangs below the given connection, so its channels can be released
+	 * once it has left the grid.
+	 *
+	 * @return false if the connection cannot be removed without a repath
+	 */
+	private boolean detachBranch( final GridConnection connection )
+	{
+		if( this.detachedItems.contains( connection ) )
+		{
+			// already part of a detached branch.
+			return true;
+		}
+
+		final IGridNode a = connection.a();
+		final IGridNode b = connection.b();
+		if( this.createdConnections.contains( connection ) || this.addedNodes.contains( a ) || this.addedNodes.contains( b ) )
+		{
+			return false;
+		}
+
+		if( this.removedNodes.contains( a ) || this.removedNodes.contains( b ) )
+		{
+			return false;
+		}
+
+		final IPathItem parent = connection.getControllerRoute();
+		if( parent == null )
+		{
+			// directly attached to a controller
+			return false;
+		}
+
+		final GridNode child = (GridNode) connection.getOtherSide( (IGridNode) parent );
+		if( child.getControllerRoute() != connection )
+		{
+			// not part of the channel tree, nothing can be routed through it.
+			return connection.getUsedChannels() == 0;
+		}
+
+		final DetachedBranch branch = new DetachedBranch( parent, connection.getUsedChannels() );
+		int blocks = 2 * connection.getUsedChannels();
+
+		this.detachedItems.add( connection );
+		this.detachedItems.add( child );
+
+		final Deque<GridNode> open = new ArrayDeque<>();
+		open.add( child );
+
+		while( !open.isEmpty() )
+		{
+			final GridNode node = open.poll();
+			if( !isIncrementalCandidate( node ) )
+			{
+				return false;
+			}
+
+			branch.nodes.add( node );
+
+			for( final IGridConnection gcc : node.getConnections() )
+			{
+				final GridConnection gc = (GridConnection) gcc;
+				if( gc == connection || this.detachedItems.contains( gc ) )
+				{
+					continue;
+				}
+
+				this.detachedItems.add( gc );
+
+				final GridNode other = (GridNode) gc.getOtherSide( node );
+				if( gc.getControllerRoute() == node && other.getControllerRoute() == gc && !this.detachedItems.contains( other ) )
+				{
+					// every node carries exactly the channels of its route.
+					blocks += 2 * gc.getUsedChannels();
+					this.detachedItems.add( other );
+					open.add( other );
+				}
+			}
+		}
+
+		branch.blocks = blocks;
+		this.detachedBranches.add( branch );
+		return true;
+	}
+
+	/**
+	 * Applies the changes collected since the last tick to the existing channel tree, detached branches release their
+	 * channels, new nodes are attached below the node they connected to.
+	 *
+	 * @return false if the changes require a repath, the tree might have been modified partially in that case
+	 */
+	private boolean applyPendingChanges()
+	{
+		for( final IGridNode node : this.removedNodes )
+		{
+			if( !this.detachedItems.contains( node ) )
+			{
+				return false;
+			}
+		}
+
+		for( final DetachedBranch branch : this.detachedBranches )
+		{
+			for( final IGridNode node : branch.nodes )
+			{
+				// still reachable through some other path, which means the remaining routes are stale.
+				if( !this.removedNodes.contains( node ) )
+				{
+					return false;
+				}
+			}
+		}
+
+		final Set<IPathItem> changed = new HashSet<>();
+		int released = 0;
+
+		for( final DetachedBranch branch : this.detachedBranches )
+		{
+			this.setChannelsByBlocks( this.getChannelsByBlocks() - branch.blocks );
+
+			// nested branches are already covered by the channels of their parent branch.
+			if( !this.detachedItems.contains( branch.parent ) && branch.channels > 0 )
+			{
+				for( IPathItem pi = branch.parent; pi != null; pi = pi.getControllerRoute() )
+				{
+					this.setChannelsByBlocks( this.getChannelsByBlocks() - branch.channels );
+					pi.incrementChannelCount( -branch.channels );
+					changed.add( pi );
+				}
+
+				this.setChannelsInUse( this.getChannelsInUse() - branch.channels );
+				released += branch.channels;
+			}
+		}
+
+		if( released > 0 )
+		{
+			for( final IGridNode node : this.requireChannels )
+			{
+				final boolean pending = this.removedNodes.contains( node ) || this.addedNodes.contains( node );
+				if( !pending && !node.meetsChannelRequirements() && isIncrementalCandidate( node ) )
+				{
+					this.claimChannel( (IPathItem) node, changed );
+				}
+			}
+		}
+
+		final Set<IPathItem> closed = new HashSet<>();
+		for( final GridConnection gc : this.createdConnections )
+		{
+			final boolean newA = this.addedNodes.contains( gc.a() );
+			final boolean newB = this.addedNodes.contains( gc.b() );
+
+			if( closed.contains( gc ) || ( newA && newB ) )
+			{
+				continue;
+			}
+
+			final GridNode parent = (GridNode) ( newA ? gc.b() : gc.a() );
+			if( this.removedNodes.contains( parent ) || parent.getControllerRoute() == null || !this.attachBranch( gc, parent, closed, changed ) )
+			{
+				return false;
+			}
+		}
+
+		for( final IGridNode node : this.addedNodes )
+		{
+			if( !closed.contains( node ) )
+			{
+				return false;
+			}
+		}
+
+		for( final IPathItem pi : changed )
+		{
+			pi.finalizeChannels();
+		}
+
+		this.setChannelPowerUsage( this.getChannelsByBlocks() / 128.0 );
+		this.achievementPost();
+		return true;
+	}
+
+	/**
+	 * Walks the new nodes behind the connection in the same order a full repath would, but stops as soon as it reaches
+	 * a node which already was part of the tree.
+	 */
+	private boolean attachBranch( final GridConnection attachment, final GridNode parent, final Set<IPathItem> closed, final Set<IPathItem> changed )
+	{
+		attachment.setControllerRoute( parent, true );
+		closed.add( attachment );
+		changed.add( attachment );
+
+		List<IPathItem> open = new ArrayList<>();
+		open.add( attachment );
+
+		while( !open.isEmpty() )
+		{
+			final List<IPathItem> oldOpen = open;
+			open = new ArrayList<>();
+
+			for( final IPathItem i : oldOpen )
+			{
+				for( final IPathItem pi : i.getPossibleOptions() )
+				{
+					if( pi == parent && i == attachment || closed.contains( pi ) )
+					{
+						continue;
+					}
+
+					if( pi instanceof IGridNode && !this.addedNodes.contains( pi ) )
+					{
+						// the new nodes form a loop with the existing tree
+						return false;
+					}
+
+					pi.setControllerRoute( i, true );
+					closed.add( pi );
+					changed.add( pi );
+					open.add( pi );
+
+					if( pi.getFlags().contains( GridFlags.REQUIRE_CHANNEL ) )
+					{
+						this.claimChannel( pi, changed );
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private boolean claimChannel( final IPathItem start, final Set<IPathItem> changed )
+	{
+		final boolean dense = start.getFlags().contains( GridFlags.COMPRESSED_CHANNEL );
+
+		IPathItem pi = start;
+		while( pi != null )
+		{
+			if( !pi.canSupportMoreChannels() || ( dense && pi.getFlags().contains( GridFlags.CANNOT_CARRY_COMPRESSED ) ) )
+			{
+				return false;
+			}
+
+			pi = pi.getControllerRoute();
+		}
+
+		pi = start;
+		while( pi != null )
+		{
+			this.setChannelsByBlocks( this.getChannelsByBlocks() + 1 );
+			pi.incrementChannelCount( 1 );
+			changed.add( pi );
+			pi = pi.getControllerRoute();
+		}
+
+		this.setChannelsInUse( this.getChannelsInUse() + 1 );
+		return true;
 	}
 
 	double getChannelPowerUsage()
@@ -450,4 +841,18 @@ public class PathGridCache implements IPathingGrid
 	{
 		this.channelsInUse = channelsInUse;
 	}
+
+	private static class DetachedBranch
+	{
+		private final IPathItem parent;
+		private final int channels;
+		private final List<IGridNode> nodes = new ArrayList<>();
+		private int blocks;
+
+		private DetachedBranch( final IPathItem parent, final int channels )
+		{
+			this.parent = parent;
+			this.channels = channels;
+		}
+	}
 }
@@ -19,8 +19,10 @@
 package appeng.me.cache;
 
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.PriorityQueue;
+import java.util.Map;
 
 import com.google.common.base.Preconditions;
 
@@ -37,18 +39,26 @@ import appeng.api.networking.ticking.ITickManager;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.me.cache.helpers.TickTracker;
+import appeng.me.cache.helpers.TimingWheel;
 
 
 public class TickManagerCache implements ITickManager
 {
 
+	/**
+	 * Covers the default maximum tick rates, devices ticking even slower just stay in the wheel for multiple rounds.
+	 */
+	private static final int WHEEL_SIZE = 128;
+
 	private final IGrid myGrid;
 	private final HashMap<IGridNode, TickTracker> alertable = new HashMap<>();
 	private final HashMap<IGridNode, TickTracker> sleeping = new HashMap<>();
 	private final HashMap<IGridNode, TickTracker> awake = new HashMap<>();
-	private final PriorityQueue<TickTracker> upcomingTicks = new PriorityQueue<>();
 
 	private long currentTick = 0;
+	private long avgTickNanos = 0;
+
+	private final TimingWheel<TickTracker> upcomingTicks = new TimingWheel<>( WHEEL_SIZE, this.currentTick );
 
 	public TickManagerCache( final IGrid g )
 	{
@@ -60,6 +70,40 @@ public class TickManagerCache implements ITickManager
 		return this.currentTick;
 	}
 
+	/**
+	 * @return average time spent per tick in all devices of this grid
+	 */
+	public long getAvgNanoTime()
+	{
+		return this.avgTickNanos;
+	}
+
+	/**
+	 * @return the summed up average time per tick of all devices of each machine class
+	 */
+	public Map<Class<? extends IGridHost>, Long> getAvgNanoTimeByMachineClass()
+	{
+		final Map<Class<? extends IGridHost>, Long> out = new HashMap<>();
+
+		for( final TickTracker tt : this.getTickTrackers() )
+		{
+			out.merge( tt.getNode().getMachine().getClass(), tt.getAvgNanos(), Long::sum );
+		}
+
+		return out;
+	}
+
+	/**
+	 * @return a copy of all tracked devices, awake or sleeping
+	 */
+	public Collection<TickTracker> getTickTrackers()
+	{
+		final Collection<TickTracker> out = new ArrayList<>( this.awake.size() + this.sleeping.size() );
+		out.addAll( this.awake.values() );
+		out.addAll( this.sleeping.values() );
+		return out;
+	}
+
 	public long getAvgNanoTime( final IGridNode node )
 	{
 		TickTracker tt = this.awake.get( node );
@@ -81,25 +125,23 @@ public class TickManagerCache implements ITickManager
 	public void onUpdateTick()
 	{
 		TickTracker tt = null;
+		long tickNanos = 0;
 
 		try
 		{
 			this.currentTick++;
+			this.upcomingTicks.advanceTo( this.currentTick );
 
-			while( !this.upcomingTicks.isEmpty() )
+			// devices rescheduled for this tick while ticking are polled in the same loop.
+			while( ( tt = this.upcomingTicks.poll() ) != null )
 			{
-				tt = this.upcomingTicks.peek();
-
-				// Stop once it reaches a TickTracker running at a later tick
-				if( tt.getNextTick() > this.currentTick )
-				{
-					break;
-				}
-
-				this.upcomingTicks.poll();
-
 				final int diff = (int) ( this.currentTick - tt.getLastTick() );
+				final long start = System.nanoTime();
 				final TickRateModulation mod = tt.getGridTickable().tickingRequest( tt.getNode(), diff );
+				final long spent = System.nanoTime() - start;
+
+				tt.recordTickTime( spent );
+				tickNanos += spent;
 
 				switch( mod )
 				{
@@ -129,6 +171,8 @@ public class TickManagerCache implements ITickManager
 					this.addToQueue( tt );
 				}
 			}
+
+			this.avgTickNanos += ( tickNanos - this.avgTickNanos ) >> TickTracker.AVERAGE_SHIFT;
 		}
 		catch( final Throwable t )
 		{
@@ -142,7 +186,7 @@ public class TickManagerCache implements ITickManager
 	private void addToQueue( final TickTracker tt )
 	{
 		tt.setLastTick( this.currentTick );
-		this.upcomingTicks.add( tt );
+		this.upcomingTicks.schedule( tt.getWheelEntry(), tt.getNextTick() );
 	}
 
 	@Override
@@ -152,7 +196,12 @@ public class TickManagerCache implements ITickManager
 		{
 			this.alertable.remove( gridNode );
 			this.sleeping.remove( gridNode );
-			this.awake.remove( gridNode );
+
+			final TickTracker tt = this.awake.remove( gridNode );
+			if( tt != null )
+			{
+				this.upcomingTicks.cancel( tt.getWheelEntry() );
+			}
 		}
 	}
 
@@ -224,9 +273,8 @@ public class TickManagerCache implements ITickManager
 		tt.setLastTick( tt.getLastTick() - tt.getRequest().maxTickRate );
 		tt.setCurrentRate( tt.getRequest().minTickRate );
 
-		// prevent dupes and tick build up.
-		this.upcomingTicks.remove( tt );
-		this.upcomingTicks.add( tt );
+		// rescheduling replaces the pending tick, this prevents dupes and tick build up.
+		this.upcomingTicks.schedule( tt.getWheelEntry(), tt.getNextTick() );
 
 		return true;
 	}
@@ -241,6 +289,7 @@ public class TickManagerCache implements ITickManager
 			final TickTracker gt = this.awake.get( node );
 			this.awake.remove( node );
 			this.sleeping.put( node, gt );
+			this.upcomingTicks.cancel( gt.getWheelEntry() );
 
 			return true;
 		}
@@ -258,7 +307,6 @@ public class TickManagerCache implements ITickManager
 			final TickTracker gt = this.sleeping.get( node );
 			this.sleeping.remove( node );
 			this.awake.put( node, gt );
-			this.upcomingTicks.remove( gt );
 			this.addToQueue( gt );
 
 			return true;
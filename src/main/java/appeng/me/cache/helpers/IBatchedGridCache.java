@@ -0,0 +1,39 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+/**
+ * A grid cache which can defer its updates while many nodes join or leave the grid at once, see
+ * {@link appeng.me.Grid#transfer}.
+ */
+public interface IBatchedGridCache
+{
+
+	/**
+	 * Nodes will be added or removed, {@link appeng.api.networking.IGridCache#addNode} and removeNode are still called
+	 * for every node.
+	 */
+	void beginBatch();
+
+	/**
+	 * All nodes of the batch were added or removed, update for all of them at once.
+	 */
+	void endBatch();
+}
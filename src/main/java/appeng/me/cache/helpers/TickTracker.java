@@ -19,8 +19,6 @@
 package appeng.me.cache.helpers;
 
 
-import javax.annotation.Nonnull;
-
 import net.minecraft.crash.CrashReportCategory;
 
 import appeng.api.networking.IGridNode;
@@ -31,14 +29,22 @@ import appeng.me.cache.TickManagerCache;
 import appeng.parts.AEBasePart;
 
 
-public class TickTracker implements Comparable<TickTracker>
+public class TickTracker
 {
 
+	/**
+	 * Every new sample weights 1/8 in the moving average.
+	 */
+	public static final int AVERAGE_SHIFT = 3;
+
 	private final TickingRequest request;
 	private final IGridTickable gt;
 	private final IGridNode node;
+	private final TimingWheel.Entry<TickTracker> wheelEntry = new TimingWheel.Entry<>( this );
 
-	private final long LastFiveTicksTime = 0;
+	private long avgNanos = 0;
+	private long totalNanos = 0;
+	private long ticks = 0;
 
 	private long lastTick;
 	private int currentRate;
@@ -52,30 +58,29 @@ public class TickTracker implements Comparable<TickTracker>
 		this.setLastTick( currentTick );
 	}
 
+	/**
+	 * @return exponentially weighted moving average of the time spent in {@link IGridTickable#tickingRequest}
+	 */
 	public long getAvgNanos()
 	{
-		return( this.LastFiveTicksTime / 5 );
+		return this.avgNanos;
 	}
 
-	@Override
-	public int compareTo( @Nonnull final TickTracker t )
+	public long getTotalNanos()
 	{
-		int next = Long.compare( this.getNextTick(), t.getNextTick() );
-
-		if( next != 0 )
-		{
-			return next;
-		}
-
-		int last = Long.compare( this.getLastTick(), t.getLastTick() );
-
-		if( last != 0 )
-		{
-			return last;
-		}
+		return this.totalNanos;
+	}
 
-		return Integer.compare( this.getCurrentRate(), t.getCurrentRate() );
+	public long getTicks()
+	{
+		return this.ticks;
+	}
 
+	public void recordTickTime( final long nanos )
+	{
+		this.avgNanos = this.ticks == 0 ? nanos : this.avgNanos + ( ( nanos - this.avgNanos ) >> AVERAGE_SHIFT );
+		this.totalNanos += nanos;
+		this.ticks++;
 	}
 
 	public void addEntityCrashInfo( final CrashReportCategory crashreportcategory )
@@ -139,4 +144,9 @@ public class TickTracker implements Comparable<TickTracker>
 	{
 		return this.request;
 	}
+
+	public TimingWheel.Entry<TickTracker> getWheelEntry()
+	{
+		return this.wheelEntry;
+	}
 }
@@ -0,0 +1,196 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2018, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * A hashed timing wheel. Scheduling, rescheduling and cancelling an entry are O(1), advancing by one tick only visits
+ * the entries of a single slot.
+ *
+ * Entries further in the future than the size of the wheel are supported, they just stay in their slot for more than
+ * one round.
+ */
+public class TimingWheel<T>
+{
+
+	private final Entry<T>[] slots;
+	private final int mask;
+
+	/**
+	 * Entries which are due, in the order they became due.
+	 */
+	private final Entry<T> expired = new Entry<>( null );
+
+	private long now;
+	private int size;
+
+	@SuppressWarnings( "unchecked" )
+	public TimingWheel( final int minimumSize, final long now )
+	{
+		Preconditions.checkArgument( minimumSize > 0, "minimumSize has to be positive" );
+
+		final int wheelSize = Integer.highestOneBit( minimumSize - 1 ) << 1;
+
+		this.slots = new Entry[Math.max( 1, wheelSize )];
+		this.mask = this.slots.length - 1;
+		this.now = now;
+
+		for( int i = 0; i < this.slots.length; i++ )
+		{
+			this.slots[i] = new Entry<>( null );
+		}
+	}
+
+	public long getNow()
+	{
+		return this.now;
+	}
+
+	public int size()
+	{
+		return this.size;
+	}
+
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	/**
+	 * (Re)schedules the entry, an entry due at or before the current tick is returned by the next {@link #poll()}.
+	 */
+	public void schedule( final Entry<T> entry, final long due )
+	{
+		this.cancel( entry );
+
+		entry.due = due;
+		entry.linkBefore( due <= this.now ? this.expired : this.slots[(int) ( due & this.mask )] );
+		this.size++;
+	}
+
+	public boolean cancel( final Entry<T> entry )
+	{
+		if( entry.isScheduled() )
+		{
+			entry.unlink();
+			this.size--;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Moves the time forward, every entry due until then can be retrieved with {@link #poll()}.
+	 */
+	public void advanceTo( final long tick )
+	{
+		// a full round visits every slot already.
+		final long from = Math.max( this.now + 1, tick - this.mask );
+
+		this.now = Math.max( this.now, tick );
+
+		for( long t = from; t <= tick; t++ )
+		{
+			final Entry<T> head = this.slots[(int) ( t & this.mask )];
+			Entry<T> e = head.next;
+
+			while( e != head )
+			{
+				final Entry<T> next = e.next;
+
+				if( e.due <= tick )
+				{
+					e.unlink();
+					e.linkBefore( this.expired );
+				}
+
+				e = next;
+			}
+		}
+	}
+
+	/**
+	 * @return the next due entry, which is no longer scheduled, or null if there is none.
+	 */
+	public T poll()
+	{
+		final Entry<T> e = this.expired.next;
+
+		if( e == this.expired )
+		{
+			return null;
+		}
+
+		e.unlink();
+		this.size--;
+
+		return e.value;
+	}
+
+	/**
+	 * Links an object into a {@link TimingWheel}, keep one per scheduled object and reuse it.
+	 */
+	public static final class Entry<T>
+	{
+		private final T value;
+		private Entry<T> prev = this;
+		private Entry<T> next = this;
+		private long due;
+
+		public Entry( final T value )
+		{
+			this.value = value;
+		}
+
+		public T getValue()
+		{
+			return this.value;
+		}
+
+		public long getDue()
+		{
+			return this.due;
+		}
+
+		public boolean isScheduled()
+		{
+			return this.next != this;
+		}
+
+		private void linkBefore( final Entry<T> head )
+		{
+			this.prev = head.prev;
+			this.next = head;
+			head.prev.next = this;
+			head.prev = this;
+		}
+
+		private void unlink()
+		{
+			this.prev.next = this.next;
+			this.next.prev = this.prev;
+			this.prev = this;
+			this.next = this;
+		}
+	}
+}
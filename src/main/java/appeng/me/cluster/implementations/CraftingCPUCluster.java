@@ -69,6 +69,7 @@ import appeng.crafting.CraftBranchFailure;
 import appeng.crafting.CraftingJob;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingWatcher;
+import appeng.crafting.ICraftingBatchMedium;
 import appeng.crafting.MECraftingInventory;
 import appeng.me.cache.CraftingGridCache;
 import appeng.me.cluster.IAECluster;
@@ -110,6 +111,10 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 	private int remainingOperations;
 	private boolean somethingChanged;
 
+	// changes made while executing, posted once per tick
+	private IItemList<IAEItemStack> pendingChanges = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+	private IItemList<IAEItemStack> pendingStatusChanges = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+
 	private long lastTime;
 	private long elapsedTime;
 	private long startItemCount;
@@ -367,14 +372,17 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 	}
 
 	private void postChange( final IAEItemStack diff, final IActionSource src )
+	{
+		this.postChanges( ImmutableList.of( diff.copy() ), src );
+	}
+
+	private void postChanges( final List<IAEItemStack> changes, final IActionSource src )
 	{
 		final Iterator<Entry<IMEMonitorHandlerReceiver<IAEItemStack>, Object>> i = this.getListeners();
 
 		// protect integrity
 		if( i.hasNext() )
 		{
-			final ImmutableList<IAEItemStack> single = ImmutableList.of( diff.copy() );
-
 			while( i.hasNext() )
 			{
 				final Entry<IMEMonitorHandlerReceiver<IAEItemStack>, Object> o = i.next();
@@ -382,7 +390,7 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 
 				if( receiver.isValid( o.getValue() ) )
 				{
-					receiver.postChange( null, single, src );
+					receiver.postChange( null, changes, src );
 				}
 				else
 				{
@@ -398,6 +406,45 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 		this.getCore().saveChanges();
 	}
 
+	private void queueChange( final IAEItemStack diff )
+	{
+		this.pendingChanges.add( diff.copy() );
+	}
+
+	private void queueCraftingStatusChange( final IAEItemStack diff )
+	{
+		this.pendingStatusChanges.add( diff.copy() );
+	}
+
+	/**
+	 * Posts the changes of all pushes of this tick as a single diff.
+	 */
+	private void postQueuedChanges()
+	{
+		if( !this.pendingChanges.isEmpty() )
+		{
+			final List<IAEItemStack> changes = new ArrayList<>( this.pendingChanges.size() );
+			for( final IAEItemStack is : this.pendingChanges )
+			{
+				changes.add( is );
+			}
+
+			this.pendingChanges = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+			this.postChanges( changes, this.machineSrc );
+		}
+
+		if( !this.pendingStatusChanges.isEmpty() )
+		{
+			final IItemList<IAEItemStack> changes = this.pendingStatusChanges;
+			this.pendingStatusChanges = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+
+			for( final IAEItemStack is : changes )
+			{
+				this.postCraftingStatusChange( is );
+			}
+		}
+	}
+
 	private void postCraftingStatusChange( final IAEItemStack diff )
 	{
 		if( this.getGrid() == null )
@@ -617,6 +664,8 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 				this.executeCrafting( eg, cc );
 			}
 			while( this.somethingChanged && this.remainingOperations > 0 );
+
+			this.postQueuedChanges();
 		}
 		this.usedOps[2] = this.usedOps[1];
 		this.usedOps[1] = this.usedOps[0];
@@ -657,6 +706,16 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 
 					if( !m.isBusy() )
 					{
+						if( ic == null && m instanceof ICraftingBatchMedium && this.pushBatch( eg, details, (ICraftingBatchMedium) m, e.getValue() ) > 0 )
+						{
+							if( this.remainingOperations == 0 )
+							{
+								return;
+							}
+
+							continue;
+						}
+
 						if( ic == null )
 						{
 							final IAEItemStack[] input = details.getInputs();
@@ -717,7 +776,7 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 
 												if( !is.isEmpty() )
 												{
-													this.postChange( AEItemStack.fromItemStack( is ), this.machineSrc );
+													this.queueChange( AEItemStack.fromItemStack( is ) );
 													ic.setInventorySlotContents( x, is );
 													found = true;
 													break;
@@ -732,7 +791,7 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 
 										if( !is.isEmpty() )
 										{
-											this.postChange( input[x], this.machineSrc );
+											this.queueChange( input[x] );
 											ic.setInventorySlotContents( x, is );
 											if( is.getCount() == input[x].getStackSize() )
 											{
@@ -772,9 +831,9 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 
 							for( final IAEItemStack out : details.getCondensedOutputs() )
 							{
-								this.postChange( out, this.machineSrc );
+								this.queueChange( out );
 								this.waitingFor.add( out.copy() );
-								this.postCraftingStatusChange( out.copy() );
+								this.queueCraftingStatusChange( out );
 							}
 
 							if( details.isCraftable() )
@@ -789,9 +848,9 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 									if( !output.isEmpty() )
 									{
 										final IAEItemStack cItem = AEItemStack.fromItemStack( output );
-										this.postChange( cItem, this.machineSrc );
+										this.queueChange( cItem );
 										this.waitingFor.add( cItem );
-										this.postCraftingStatusChange( cItem );
+										this.queueCraftingStatusChange( cItem );
 									}
 								}
 							}
@@ -829,6 +888,126 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 		}
 	}
 
+	/**
+	 * Pushes as many crafts of a processing pattern as the medium, the task, the co-processors and the stored items
+	 * allow, using a single extraction per item and a single power draw.
+	 *
+	 * @return the number of crafts pushed, 0 if the pattern has to be pushed one craft at a time.
+	 */
+	private int pushBatch( final IEnergyGrid eg, final ICraftingPatternDetails details, final ICraftingBatchMedium medium, final TaskProgress progress )
+	{
+		if( details.isCraftable() )
+		{
+			return 0;
+		}
+
+		long crafts = Math.min( progress.value, this.remainingOperations );
+		crafts = Math.min( crafts, medium.getMaxBatchSize( details ) );
+
+		final IAEItemStack[] condensed = details.getCondensedInputs();
+		for( final IAEItemStack in : condensed )
+		{
+			final IAEItemStack stored = this.inventory.getItemList().findPrecise( in );
+			crafts = Math.min( crafts, stored == null ? 0 : stored.getStackSize() / in.getStackSize() );
+		}
+
+		if( crafts <= 1 )
+		{
+			return 0;
+		}
+
+		final IAEItemStack[] input = details.getInputs();
+		double sum = 0;
+
+		for( final IAEItemStack anInput : input )
+		{
+			if( anInput != null )
+			{
+				sum += anInput.getStackSize();
+			}
+		}
+
+		sum *= crafts;
+
+		// power...
+		if( eg.extractAEPower( sum, Actionable.SIMULATE, PowerMultiplier.CONFIG ) < sum - 0.01 )
+		{
+			return 0;
+		}
+
+		final List<IAEItemStack> extracted = new ArrayList<>( condensed.length );
+		boolean found = true;
+
+		for( final IAEItemStack in : condensed )
+		{
+			final IAEItemStack request = in.copy();
+			request.setStackSize( in.getStackSize() * crafts );
+
+			final IAEItemStack ais = this.inventory.extractItems( request, Actionable.MODULATE, this.machineSrc );
+			if( ais != null )
+			{
+				extracted.add( ais );
+			}
+
+			if( ais == null || ais.getStackSize() != request.getStackSize() )
+			{
+				found = false;
+				break;
+			}
+		}
+
+		final InventoryCrafting ic = new InventoryCrafting( new ContainerNull(), 3, 3 );
+
+		if( found )
+		{
+			for( int x = 0; x < input.length; x++ )
+			{
+				if( input[x] != null )
+				{
+					final ItemStack is = input[x].createItemStack();
+					is.setCount( (int) ( input[x].getStackSize() * crafts ) );
+					ic.setInventorySlotContents( x, is );
+				}
+			}
+		}
+
+		if( !found || !medium.pushPattern( details, ic, (int) crafts ) )
+		{
+			// put stuff back..
+			for( final IAEItemStack ais : extracted )
+			{
+				this.inventory.injectItems( ais, Actionable.MODULATE, this.machineSrc );
+			}
+
+			return 0;
+		}
+
+		eg.extractAEPower( sum, Actionable.MODULATE, PowerMultiplier.CONFIG );
+
+		for( final IAEItemStack ais : extracted )
+		{
+			this.queueChange( ais );
+		}
+
+		this.somethingChanged = true;
+		this.remainingOperations -= crafts;
+
+		for( final IAEItemStack out : details.getCondensedOutputs() )
+		{
+			final IAEItemStack o = out.copy();
+			o.setStackSize( out.getStackSize() * crafts );
+
+			this.queueChange( o );
+			this.waitingFor.add( o.copy() );
+			this.queueCraftingStatusChange( o );
+		}
+
+		this.markDirty();
+
+		progress.value -= crafts;
+		return (int) crafts;
+	}
+
 	private void storeItems()
 	{
 		final IGrid g = this.getGrid();
@@ -20,6 +20,8 @@ package appeng.me.storage;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -43,13 +45,25 @@ import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
 import appeng.util.InventoryAdaptor;
 import appeng.util.Platform;
+import appeng.util.inv.ISlotAdaptor;
 import appeng.util.inv.ItemSlot;
 
 
 public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMonitor
 {
 
+	/**
+	 * Unchanged slots are scanned less often, at most this many ticks apart.
+	 */
+	private static final int MAX_SLOT_INTERVAL = 4;
+
 	private final InventoryAdaptor adaptor;
+	private final ISlotAdaptor slots;
+	private final BitSet modifiedSlots = new BitSet();
+	private final ItemSlot slotView = new ItemSlot();
+	private int[] slotIntervals = new int[0];
+	private int[] nextSlotScans = new int[0];
+	private int scanTick;
 	private final IItemList<IAEItemStack> list = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
 	private final HashMap<IMEMonitorHandlerReceiver<IAEItemStack>, Object> listeners = new HashMap<>();
 	private final NavigableMap<Integer, CachedItemStack> memory;
@@ -60,6 +74,16 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 	{
 		this.adaptor = adaptor;
 		this.memory = new ConcurrentSkipListMap<>();
+
+		if( adaptor instanceof ISlotAdaptor )
+		{
+			this.slots = (ISlotAdaptor) adaptor;
+			this.slots.setSlotListener( this.modifiedSlots::set );
+		}
+		else
+		{
+			this.slots = null;
+		}
 	}
 
 	@Override
@@ -90,7 +114,7 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 
 		if( type == Actionable.MODULATE )
 		{
-			this.onTick();
+			this.onModified();
 		}
 
 		if( out.isEmpty() )
@@ -129,7 +153,7 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 
 		if( type == Actionable.MODULATE )
 		{
-			this.onTick();
+			this.onModified();
 		}
 
 		return o;
@@ -144,69 +168,179 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 	@Override
 	public TickRateModulation onTick()
 	{
+		final List<IAEItemStack> changes = new ArrayList<>();
+		final boolean changed;
+
+		if( this.slots != null )
+		{
+			changed = this.scanSlots( changes );
+		}
+		else
+		{
+			changed = this.scanInventory( changes );
+		}
+
+		if( !changes.isEmpty() )
+		{
+			this.postDifference( changes );
+		}
+
+		return changed ? TickRateModulation.URGENT : TickRateModulation.SLOWER;
+	}
+
+	/**
+	 * Applies our own inserts and extracts, only the slots reported by the adaptor are read again.
+	 */
+	private void onModified()
+	{
+		if( this.slots == null )
+		{
+			this.onTick();
+			return;
+		}
 
 		final List<IAEItemStack> changes = new ArrayList<>();
+		final int count = this.slots.getSlots();
 
-		this.list.resetStatus();
-		int high = 0;
-		boolean changed = false;
-		for( final ItemSlot is : this.adaptor )
+		for( int slot = this.modifiedSlots.nextSetBit( 0 ); slot >= 0 && slot < count; slot = this.modifiedSlots.nextSetBit( slot + 1 ) )
 		{
-			final CachedItemStack old = this.memory.get( is.getSlot() );
-			high = Math.max( high, is.getSlot() );
+			if( this.updateSlot( this.slots.getSlot( slot, this.slotView ), changes ) && slot < this.slotIntervals.length )
+			{
+				this.slotIntervals[slot] = 1;
+				this.nextSlotScans[slot] = this.scanTick + 1;
+			}
+		}
 
-			final ItemStack newIS = !is.isExtractable() && this.getMode() == StorageFilter.EXTRACTABLE_ONLY ? ItemStack.EMPTY : is.getItemStack();
-			final ItemStack oldIS = old == null ? ItemStack.EMPTY : old.itemStack;
+		this.modifiedSlots.clear();
 
-			if( this.isDifferent( newIS, oldIS ) )
+		if( !changes.isEmpty() )
+		{
+			this.postDifference( changes );
+		}
+	}
+
+	/**
+	 * Scans the slots which are due, slots which keep changing are scanned every tick while stable ones back off up to
+	 * {@link #MAX_SLOT_INTERVAL} ticks.
+	 */
+	private boolean scanSlots( final List<IAEItemStack> changes )
+	{
+		final int count = this.slots.getSlots();
+
+		if( count != this.slotIntervals.length )
+		{
+			final int oldCount = this.slotIntervals.length;
+			this.slotIntervals = Arrays.copyOf( this.slotIntervals, count );
+			this.nextSlotScans = Arrays.copyOf( this.nextSlotScans, count );
+
+			for( int slot = oldCount; slot < count; slot++ )
 			{
-				final CachedItemStack cis = new CachedItemStack( is.getItemStack() );
-				this.memory.put( is.getSlot(), cis );
+				this.slotIntervals[slot] = 1;
+				this.nextSlotScans[slot] = this.scanTick;
+			}
+		}
 
-				if( old != null && old.aeStack != null )
+		this.scanTick++;
+
+		boolean changed = false;
+		for( int slot = 0; slot < count; slot++ )
+		{
+			if( this.nextSlotScans[slot] <= this.scanTick || this.modifiedSlots.get( slot ) )
+			{
+				if( this.updateSlot( this.slots.getSlot( slot, this.slotView ), changes ) )
 				{
-					old.aeStack.setStackSize( -old.aeStack.getStackSize() );
-					changes.add( old.aeStack );
+					this.slotIntervals[slot] = 1;
+					changed = true;
 				}
-
-				if( cis.aeStack != null )
+				else
 				{
-					changes.add( cis.aeStack );
-					this.list.add( cis.aeStack );
+					this.slotIntervals[slot] = Math.min( this.slotIntervals[slot] * 2, MAX_SLOT_INTERVAL );
 				}
 
-				changed = true;
+				this.nextSlotScans[slot] = this.scanTick + this.slotIntervals[slot];
 			}
-			else
+		}
+
+		this.modifiedSlots.clear();
+
+		return this.dropSlots( count - 1, changes ) || changed;
+	}
+
+	private boolean scanInventory( final List<IAEItemStack> changes )
+	{
+		int high = 0;
+		boolean changed = false;
+		for( final ItemSlot is : this.adaptor )
+		{
+			high = Math.max( high, is.getSlot() );
+			changed |= this.updateSlot( is, changes );
+		}
+
+		return this.dropSlots( high, changes ) || changed;
+	}
+
+	/**
+	 * Compares a slot against the cached one and applies the difference to the cache and the storage list.
+	 */
+	private boolean updateSlot( final ItemSlot is, final List<IAEItemStack> changes )
+	{
+		final CachedItemStack old = this.memory.get( is.getSlot() );
+
+		final ItemStack newIS = !is.isExtractable() && this.getMode() == StorageFilter.EXTRACTABLE_ONLY ? ItemStack.EMPTY : is.getItemStack();
+		final ItemStack oldIS = old == null ? ItemStack.EMPTY : old.itemStack;
+
+		if( this.isDifferent( newIS, oldIS ) )
+		{
+			final CachedItemStack cis = new CachedItemStack( newIS );
+			this.memory.put( is.getSlot(), cis );
+
+			if( old != null && old.aeStack != null )
 			{
-				final int newSize = ( newIS.isEmpty() ? 0 : newIS.getCount() );
-				final int diff = newSize - ( oldIS.isEmpty() ? 0 : oldIS.getCount() );
-
-				final IAEItemStack stack = ( old == null || old.aeStack == null ? AEApi.instance()
-						.storage()
-						.getStorageChannel( IItemStorageChannel.class )
-						.createStack( newIS ) : old.aeStack.copy() );
-				if( stack != null )
-				{
-					stack.setStackSize( newSize );
-					this.list.add( stack );
-				}
+				final IAEItemStack a = old.aeStack.copy();
+				a.setStackSize( -a.getStackSize() );
+				changes.add( a );
+				this.list.add( a );
+			}
 
-				if( diff != 0 && stack != null )
-				{
-					final CachedItemStack cis = new CachedItemStack( is.getItemStack() );
-					this.memory.put( is.getSlot(), cis );
+			if( cis.aeStack != null )
+			{
+				changes.add( cis.aeStack.copy() );
+				this.list.add( cis.aeStack );
+			}
 
-					final IAEItemStack a = stack.copy();
-					a.setStackSize( diff );
-					changes.add( a );
-					changed = true;
-				}
+			return true;
+		}
+
+		final int newSize = ( newIS.isEmpty() ? 0 : newIS.getCount() );
+		final int diff = newSize - ( oldIS.isEmpty() ? 0 : oldIS.getCount() );
+
+		if( diff != 0 )
+		{
+			final CachedItemStack cis = new CachedItemStack( newIS );
+			this.memory.put( is.getSlot(), cis );
+
+			if( cis.aeStack != null )
+			{
+				final IAEItemStack a = cis.aeStack.copy();
+				a.setStackSize( diff );
+				changes.add( a );
+				this.list.add( a );
 			}
+
+			return true;
 		}
 
-		// detect dropped items; should fix non IISided Inventory Changes.
+		return false;
+	}
+
+	/**
+	 * detect dropped items; should fix non IISided Inventory Changes.
+	 */
+	private boolean dropSlots( final int high, final List<IAEItemStack> changes )
+	{
 		final NavigableMap<Integer, CachedItemStack> end = this.memory.tailMap( high, false );
+		boolean changed = false;
+
 		if( !end.isEmpty() )
 		{
 			for( final CachedItemStack cis : end.values() )
@@ -216,18 +350,14 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 					final IAEItemStack a = cis.aeStack.copy();
 					a.setStackSize( -a.getStackSize() );
 					changes.add( a );
+					this.list.add( a );
 					changed = true;
 				}
 			}
 			end.clear();
 		}
 
-		if( !changes.isEmpty() )
-		{
-			this.postDifference( changes );
-		}
-
-		return changed ? TickRateModulation.URGENT : TickRateModulation.SLOWER;
+		return changed;
 	}
 
 	private boolean isDifferent( final ItemStack a, final ItemStack b )
@@ -328,6 +458,9 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 	public void setMode( final StorageFilter mode )
 	{
 		this.mode = mode;
+
+		// the visible items depend on the mode, so every slot is due again
+		Arrays.fill( this.nextSlotScans, 0 );
 	}
 
 	private IActionSource getActionSource()
@@ -21,10 +21,13 @@ package appeng.me.storage;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
 
@@ -48,11 +51,22 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 	private static final ThreadLocal<Deque> DEPTH_MOD = new ThreadLocal<>();
 	private static final ThreadLocal<Deque> DEPTH_SIM = new ThreadLocal<>();
 	private static final Comparator<Integer> PRIORITY_SORTER = ( o1, o2 ) -> Integer.compare( o2, o1 );
+	// routes are rebuilt on demand, the least recently used ones are dropped on networks with a lot of different items.
+	private static final int MAX_ROUTES = 16384;
 
 	private static int currentPass = 0;
 	private final IStorageChannel<T> myChannel;
 	private final SecurityCache security;
 	private final NavigableMap<Integer, List<IMEInventoryHandler<T>>> priorityInventory;
+	private final Map<T, Route<T>> routes = Collections.synchronizedMap( new LinkedHashMap<T, Route<T>>( 16, 0.75f, true )
+	{
+		@Override
+		protected boolean removeEldestEntry( final Map.Entry<T, Route<T>> eldest )
+		{
+			return this.size() > MAX_ROUTES;
+		}
+	} );
+	private List<List<IMEInventoryHandler<T>>> buckets;
 	private int myPass = 0;
 
 	public NetworkInventoryHandler( final IStorageChannel<T> chan, final SecurityCache security )
@@ -72,6 +86,9 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		}
 
 		list.add( h );
+
+		this.buckets = null;
+		this.routes.clear();
 	}
 
 	@Override
@@ -88,12 +105,20 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return input;
 		}
 
-		for( final List<IMEInventoryHandler<T>> invList : this.priorityInventory.values() )
+		final List<List<IMEInventoryHandler<T>>> buckets = this.getBuckets();
+		final Route<T> route = this.getRoute( input, type, src );
+
+		for( int bucket = 0; bucket < buckets.size() && input != null; bucket++ )
 		{
-			Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
-			while( ii.hasNext() && input != null )
+			final List<IMEInventoryHandler<T>> invList = buckets.get( bucket );
+
+			// only handlers which can already hold this item are candidates for the first pass.
+			for( final IMEInventoryHandler<T> inv : route.getCandidates( bucket ) )
 			{
-				final IMEInventoryHandler<T> inv = ii.next();
+				if( input == null )
+				{
+					break;
+				}
 
 				if( inv.validForPass( 1 ) && inv
 						.canAccept( input ) && ( inv.isPrioritized( input ) || inv.extractItems( input, Actionable.SIMULATE, src ) != null ) )
@@ -106,14 +131,22 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			// during the first pass, they will do so in the second, but as this is stateless we will just report twice
 			// the amount of storable items.
 			// ignores craftingcache on the second pass.
-			ii = invList.iterator();
+			final Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
 			while( ii.hasNext() && input != null )
 			{
 				final IMEInventoryHandler<T> inv = ii.next();
 
 				if( inv.validForPass( 2 ) && inv.canAccept( input ) && !inv.isPrioritized( input ) )
 				{
-					input = inv.injectItems( input, type, src );
+					final long size = input.getStackSize();
+					final T leftover = inv.injectItems( input, type, src );
+
+					if( type == Actionable.MODULATE && isIndexed( inv ) && ( leftover == null || leftover.getStackSize() != size ) )
+					{
+						route.addCandidate( bucket, inv, invList );
+					}
+
+					input = leftover;
 				}
 			}
 		}
@@ -208,18 +241,17 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return null;
 		}
 
-		final Iterator<List<IMEInventoryHandler<T>>> i = this.priorityInventory.descendingMap().values().iterator();// priorityInventory.asMap().descendingMap().entrySet().iterator();
+		final List<List<IMEInventoryHandler<T>>> buckets = this.getBuckets();
+		final Route<T> route = this.getRoute( request, mode, src );
 
 		final T output = request.copy();
 		request = request.copy();
 		output.setStackSize( 0 );
 		final long req = request.getStackSize();
 
-		while( i.hasNext() )
+		for( int bucket = buckets.size() - 1; bucket >= 0; bucket-- )
 		{
-			final List<IMEInventoryHandler<T>> invList = i.next();
-
-			final Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
+			final Iterator<IMEInventoryHandler<T>> ii = route.getCandidates( bucket ).iterator();
 			while( ii.hasNext() && output.getStackSize() < req )
 			{
 				final IMEInventoryHandler<T> inv = ii.next();
@@ -239,6 +271,67 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		return output;
 	}
 
+	/**
+	 * Only cells inside drives are indexed, their content can only change through this handler. Everything else like
+	 * storage buses or chests can change without us noticing and is always part of a route.
+	 */
+	private static boolean isIndexed( final IMEInventoryHandler<?> inv )
+	{
+		return inv instanceof DriveWatcher;
+	}
+
+	private List<List<IMEInventoryHandler<T>>> getBuckets()
+	{
+		if( this.buckets == null )
+		{
+			this.buckets = new ArrayList<>( this.priorityInventory.values() );
+		}
+
+		return this.buckets;
+	}
+
+	/**
+	 * Looks up the handlers an item has to be offered to, walking every handler once if the item is not yet indexed.
+	 * Only routes of actual transfers are kept, simulations from terminals or crafting calculations would otherwise keep
+	 * one for every item ever looked at.
+	 */
+	private Route<T> getRoute( final T input, final Actionable mode, final IActionSource src )
+	{
+		Route<T> route = this.routes.get( input );
+
+		if( route == null )
+		{
+			final List<List<IMEInventoryHandler<T>>> buckets = this.getBuckets();
+			final List<List<IMEInventoryHandler<T>>> candidates = new ArrayList<>( buckets.size() );
+
+			for( final List<IMEInventoryHandler<T>> invList : buckets )
+			{
+				final List<IMEInventoryHandler<T>> bucketCandidates = new ArrayList<>();
+
+				for( final IMEInventoryHandler<T> inv : invList )
+				{
+					if( !isIndexed( inv ) || inv.isPrioritized( input ) || inv.extractItems( input, Actionable.SIMULATE, src ) != null )
+					{
+						bucketCandidates.add( inv );
+					}
+				}
+
+				candidates.add( bucketCandidates );
+			}
+
+			route = new Route<>( candidates );
+
+			if( mode == Actionable.MODULATE )
+			{
+				final T key = input.copy();
+				key.setStackSize( 1 );
+				this.routes.put( key, route );
+			}
+		}
+
+		return route;
+	}
+
 	@Override
 	public IItemList<T> getAvailableItems( IItemList<T> out )
 	{
@@ -326,4 +419,45 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 	{
 		return true;
 	}
+
+	/**
+	 * The handlers of each priority which already contain an item or are partitioned for it, in the same order as the
+	 * priority list. Handlers which were emptied stay part of the route, the callers still check each candidate.
+	 */
+	private static final class Route<T extends IAEStack<T>>
+	{
+		private final List<List<IMEInventoryHandler<T>>> candidates;
+
+		private Route( final List<List<IMEInventoryHandler<T>>> candidates )
+		{
+			this.candidates = candidates;
+		}
+
+		List<IMEInventoryHandler<T>> getCandidates( final int bucket )
+		{
+			return this.candidates.get( bucket );
+		}
+
+		void addCandidate( final int bucket, final IMEInventoryHandler<T> inv, final List<IMEInventoryHandler<T>> invList )
+		{
+			final List<IMEInventoryHandler<T>> current = this.candidates.get( bucket );
+
+			if( current.contains( inv ) )
+			{
+				return;
+			}
+
+			// copy on write, keeping the order of the priority list, the old list might still be iterated.
+			final List<IMEInventoryHandler<T>> updated = new ArrayList<>( current.size() + 1 );
+			for( final IMEInventoryHandler<T> h : invList )
+			{
+				if( h == inv || current.contains( h ) )
+				{
+					updated.add( h );
+				}
+			}
+
+			this.candidates.set( bucket, updated );
+		}
+	}
 }
@@ -0,0 +1,266 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.parts.p2p;
+
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+
+/**
+ * The inventory an item P2P input exposes.
+ *
+ * The slots of all outputs follow one after another, the output of a slot is found with a binary search. The slots are
+ * rotated so that slot 0 is the first slot of the output picked by the {@link ItemFanOutMode}. The rotation is picked
+ * once per tick and applies to every slot method, so a slot means the same physical slot for the whole tick.
+ */
+class ItemTunnelFanOut implements IItemHandler
+{
+
+	private final PartP2PItems input;
+	private final PartP2PItems[] tunnels;
+	private final IItemHandler[] handlers;
+
+	private final int[] endIndex; // first slot after each handler
+	private final int slotCount;
+	private final ItemFanOutMode mode;
+	private int lastAccepted;
+	private int roundRobinStart;
+	private int offset = -1; // rotation of the slots for this tick
+	private boolean transferred;
+
+	ItemTunnelFanOut( final PartP2PItems input, final List<PartP2PItems> tunnels, final List<IItemHandler> handlers, final ItemFanOutMode mode )
+	{
+		this.input = input;
+		this.tunnels = tunnels.toArray( new PartP2PItems[tunnels.size()] );
+		this.handlers = handlers.toArray( new IItemHandler[handlers.size()] );
+		this.endIndex = new int[this.handlers.length];
+		this.mode = mode;
+
+		int index = 0;
+		for( int i = 0; i < this.handlers.length; i++ )
+		{
+			index += this.handlers[i].getSlots();
+			this.endIndex[i] = index;
+		}
+		this.slotCount = index;
+	}
+
+	/**
+	 * @return true if the outputs and their sizes did not change, so this view can be kept.
+	 */
+	boolean isSame( final List<PartP2PItems> tunnels, final List<IItemHandler> handlers, final ItemFanOutMode mode )
+	{
+		if( this.mode != mode || this.handlers.length != handlers.size() )
+		{
+			return false;
+		}
+
+		int index = 0;
+		for( int i = 0; i < this.handlers.length; i++ )
+		{
+			final IItemHandler handler = handlers.get( i );
+			index += handler.getSlots();
+
+			if( this.tunnels[i] != tunnels.get( i ) || this.handlers[i] != handler || this.endIndex[i] != index )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Moves on to the next output and picks the rotation again on the next access.
+	 */
+	void onTick()
+	{
+		if( this.transferred && this.handlers.length > 0 )
+		{
+			this.roundRobinStart = ( this.roundRobinStart + 1 ) % this.handlers.length;
+		}
+
+		this.offset = -1;
+		this.transferred = false;
+	}
+
+	/**
+	 * @return the slot of the outputs a slot of this inventory maps to for this tick.
+	 */
+	private int rotate( final int slot )
+	{
+		if( this.offset < 0 )
+		{
+			final int start = this.getStart();
+			this.offset = start == 0 ? 0 : this.endIndex[start - 1];
+		}
+
+		return ( slot + this.offset ) % this.slotCount;
+	}
+
+	private int getHandlerIndex( final int slot )
+	{
+		if( slot < 0 || slot >= this.slotCount )
+		{
+			return -1;
+		}
+
+		final int pos = Arrays.binarySearch( this.endIndex, slot );
+
+		// the slot is the first one of the next handler if it matches an end index
+		int index = pos >= 0 ? pos + 1 : -pos - 1;
+
+		// skip handlers without slots
+		while( this.endIndex[index] == slot )
+		{
+			index++;
+		}
+
+		return index;
+	}
+
+	private int getLocalSlot( final int slot, final int index )
+	{
+		return index == 0 ? slot : slot - this.endIndex[index - 1];
+	}
+
+	@Override
+	public int getSlots()
+	{
+		return this.slotCount;
+	}
+
+	@Override
+	@Nonnull
+	public ItemStack getStackInSlot( final int slot )
+	{
+		if( slot < 0 || slot >= this.slotCount )
+		{
+			return ItemStack.EMPTY;
+		}
+
+		final int rotated = this.rotate( slot );
+		final int index = this.getHandlerIndex( rotated );
+		return this.handlers[index].getStackInSlot( this.getLocalSlot( rotated, index ) );
+	}
+
+	@Override
+	@Nonnull
+	public ItemStack insertItem( final int slot, @Nonnull final ItemStack stack, final boolean simulate )
+	{
+		if( stack.isEmpty() || slot < 0 || slot >= this.slotCount )
+		{
+			return stack;
+		}
+
+		final int rotated = this.rotate( slot );
+		final int index = this.getHandlerIndex( rotated );
+
+		final ItemStack left = this.handlers[index].insertItem( this.getLocalSlot( rotated, index ), stack, simulate );
+		final int inserted = stack.getCount() - left.getCount();
+
+		if( inserted > 0 && !simulate )
+		{
+			this.transferred = true;
+			this.lastAccepted = index;
+
+			this.tunnels[index].onItemsTransferred( inserted );
+			this.input.onItemsTransferred( inserted );
+		}
+
+		return left;
+	}
+
+	/**
+	 * @return the output which the slots start with for this tick.
+	 */
+	private int getStart()
+	{
+		switch( this.mode )
+		{
+			case FILL_FIRST:
+				return this.lastAccepted;
+			case LEAST_FULL:
+				return this.findLeastFull();
+			default:
+				return this.roundRobinStart;
+		}
+	}
+
+	private int findLeastFull()
+	{
+		int best = 0;
+		float bestLevel = Float.MAX_VALUE;
+
+		for( int index = 0; index < this.handlers.length; index++ )
+		{
+			final IItemHandler handler = this.handlers[index];
+			long stored = 0;
+			long capacity = 0;
+
+			for( int slot = 0; slot < handler.getSlots(); slot++ )
+			{
+				stored += handler.getStackInSlot( slot ).getCount();
+				capacity += handler.getSlotLimit( slot );
+			}
+
+			final float level = capacity > 0 ? (float) stored / capacity : 1;
+			if( level < bestLevel )
+			{
+				best = index;
+				bestLevel = level;
+			}
+		}
+
+		return best;
+	}
+
+	@Override
+	@Nonnull
+	public ItemStack extractItem( final int slot, final int amount, final boolean simulate )
+	{
+		if( slot < 0 || slot >= this.slotCount )
+		{
+			return ItemStack.EMPTY;
+		}
+
+		final int rotated = this.rotate( slot );
+		final int index = this.getHandlerIndex( rotated );
+		return this.handlers[index].extractItem( this.getLocalSlot( rotated, index ), amount, simulate );
+	}
+
+	@Override
+	public int getSlotLimit( final int slot )
+	{
+		if( slot < 0 || slot >= this.slotCount )
+		{
+			return 0;
+		}
+
+		final int rotated = this.rotate( slot );
+		final int index = this.getHandlerIndex( rotated );
+		return this.handlers[index].getSlotLimit( this.getLocalSlot( rotated, index ) );
+	}
+}
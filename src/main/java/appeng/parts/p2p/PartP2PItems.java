@@ -41,12 +41,11 @@ import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.parts.IPartModel;
+import appeng.core.AEConfig;
 import appeng.core.settings.TickRates;
 import appeng.items.parts.PartModels;
 import appeng.me.GridAccessException;
 import appeng.me.cache.helpers.TunnelCollection;
-import appeng.util.Platform;
-import appeng.util.inv.WrapperChainedItemHandler;
 
 
 public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHandler, IGridTickable
@@ -63,7 +62,10 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 
 	private int oldSize = 0;
 	private boolean requested;
-	private IItemHandler cachedInv;
+	private ItemTunnelFanOut cachedInv;
+	private long transferred;
+	private long lastTransferred;
+	private float throughput;
 
 	public PartP2PItems( final ItemStack is )
 	{
@@ -90,7 +92,19 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 			return this.cachedInv;
 		}
 
-		final List<IItemHandler> outs = new ArrayList<IItemHandler>();
+		final List<PartP2PItems> tunnels = new ArrayList<>();
+		final List<IItemHandler> outs = new ArrayList<>();
+
+		if( !this.collectOutputs( tunnels, outs ) )
+		{
+			return EmptyHandler.INSTANCE;
+		}
+
+		return this.cachedInv = new ItemTunnelFanOut( this, tunnels, outs, AEConfig.instance().getP2PItemFanOut() );
+	}
+
+	private boolean collectOutputs( final List<PartP2PItems> tunnels, final List<IItemHandler> outs )
+	{
 		final TunnelCollection<PartP2PItems> itemTunnels;
 
 		try
@@ -99,7 +113,7 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 		}
 		catch( final GridAccessException e )
 		{
-			return EmptyHandler.INSTANCE;
+			return false;
 		}
 
 		for( final PartP2PItems t : itemTunnels )
@@ -107,18 +121,49 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 			final IItemHandler inv = t.getOutputInv();
 			if( inv != null && inv != this )
 			{
-				if( Platform.getRandomInt() % 2 == 0 )
-				{
-					outs.add( inv );
-				}
-				else
-				{
-					outs.add( 0, inv );
-				}
+				tunnels.add( t );
+				outs.add( inv );
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Keeps the current view unless the outputs or their sizes changed, most network events do not affect the tunnel.
+	 */
+	private void updateDestination()
+	{
+		if( this.cachedInv != null )
+		{
+			final List<PartP2PItems> tunnels = new ArrayList<>();
+			final List<IItemHandler> outs = new ArrayList<>();
+
+			if( !this.collectOutputs( tunnels, outs ) || !this.cachedInv.isSame( tunnels, outs, AEConfig.instance().getP2PItemFanOut() ) )
+			{
+				this.cachedInv = null;
 			}
 		}
 
-		return this.cachedInv = new WrapperChainedItemHandler( outs.toArray( new IItemHandler[outs.size()] ) );
+		final int olderSize = this.oldSize;
+		this.oldSize = this.getDestination().getSlots();
+		if( olderSize != this.oldSize )
+		{
+			this.getHost().notifyNeighbors();
+		}
+	}
+
+	void onItemsTransferred( final int count )
+	{
+		this.transferred += count;
+	}
+
+	/**
+	 * @return the items per second sent through this tunnel, measured over the last tick interval.
+	 */
+	public float getThroughput()
+	{
+		return this.throughput;
 	}
 
 	private IItemHandler getOutputInv()
@@ -153,11 +198,14 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 	{
 		final boolean wasReq = this.requested;
 
-		if( this.requested && this.cachedInv != null )
+		if( this.cachedInv != null )
 		{
-			( (WrapperChainedItemHandler) this.cachedInv ).cycleOrder();
+			this.cachedInv.onTick();
 		}
 
+		this.throughput = ( this.transferred - this.lastTransferred ) * 20f / Math.max( 1, ticksSinceLastCall );
+		this.lastTransferred = this.transferred;
+
 		this.requested = false;
 		return wasReq ? TickRateModulation.FASTER : TickRateModulation.SLOWER;
 	}
@@ -167,13 +215,7 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 	{
 		if( !this.isOutput() )
 		{
-			this.cachedInv = null;
-			final int olderSize = this.oldSize;
-			this.oldSize = this.getDestination().getSlots();
-			if( olderSize != this.oldSize )
-			{
-				this.getHost().notifyNeighbors();
-			}
+			this.updateDestination();
 		}
 	}
 
@@ -182,13 +224,7 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 	{
 		if( !this.isOutput() )
 		{
-			this.cachedInv = null;
-			final int olderSize = this.oldSize;
-			this.oldSize = this.getDestination().getSlots();
-			if( olderSize != this.oldSize )
-			{
-				this.getHost().notifyNeighbors();
-			}
+			this.updateDestination();
 		}
 	}
 
@@ -197,13 +233,7 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 	{
 		if( !this.isOutput() )
 		{
-			this.cachedInv = null;
-			final int olderSize = this.oldSize;
-			this.oldSize = this.getDestination().getSlots();
-			if( olderSize != this.oldSize )
-			{
-				this.getHost().notifyNeighbors();
-			}
+			this.updateDestination();
 		}
 	}
 
@@ -213,12 +243,7 @@ public class PartP2PItems extends PartP2PTunnel<PartP2PItems> implements IItemHa
 		if( !this.isOutput() )
 		{
 			this.cachedInv = null;
-			final int olderSize = this.oldSize;
-			this.oldSize = this.getDestination().getSlots();
-			if( olderSize != this.oldSize )
-			{
-				this.getHost().notifyNeighbors();
-			}
+			this.updateDestination();
 		}
 		else
 		{
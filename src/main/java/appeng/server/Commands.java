@@ -21,11 +21,12 @@ package appeng.server;
 
 import appeng.server.subcommands.ChunkLogger;
 import appeng.server.subcommands.Supporters;
+import appeng.server.subcommands.TickCosts;
 
 
 public enum Commands
 {
-	Chunklogger( 4, new ChunkLogger() ), Supporters( 0, new Supporters() );
+	Chunklogger( 4, new ChunkLogger() ), Tickcosts( 4, new TickCosts() ), Supporters( 0, new Supporters() );
 
 	public final int level;
 	public final ISubCommand command;
@@ -0,0 +1,135 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2018, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.server.subcommands;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextComponentTranslation;
+
+import appeng.api.networking.IGridHost;
+import appeng.api.networking.ticking.ITickManager;
+import appeng.api.util.DimensionalCoord;
+import appeng.hooks.TickHandler;
+import appeng.me.Grid;
+import appeng.me.cache.TickManagerCache;
+import appeng.me.cache.helpers.TickTracker;
+import appeng.server.ISubCommand;
+
+
+/**
+ * Lists the grid nodes and machine classes spending the most time per tick across all grids.
+ */
+public class TickCosts implements ISubCommand
+{
+
+	private static final int DEFAULT_ENTRIES = 10;
+
+	@Override
+	public String getHelp( final MinecraftServer srv )
+	{
+		return "commands.ae2.Tickcosts";
+	}
+
+	@Override
+	public void call( final MinecraftServer srv, final String[] data, final ICommandSender sender )
+	{
+		int entries = DEFAULT_ENTRIES;
+
+		if( data.length > 1 )
+		{
+			try
+			{
+				entries = Math.max( 1, Integer.parseInt( data[1] ) );
+			}
+			catch( final NumberFormatException e )
+			{
+				sender.sendMessage( new TextComponentTranslation( "commands.ae2.TickcostsInvalidCount", data[1] ) );
+				return;
+			}
+		}
+
+		final List<TickTracker> trackers = new ArrayList<>();
+		final Map<Class<? extends IGridHost>, Long> byMachineClass = new HashMap<>();
+		long gridNanos = 0;
+		int grids = 0;
+
+		for( final Grid grid : TickHandler.INSTANCE.getGridList() )
+		{
+			if( grid.isEmpty() )
+			{
+				continue;
+			}
+
+			final ITickManager tickManager = grid.getCache( ITickManager.class );
+
+			if( tickManager instanceof TickManagerCache )
+			{
+				final TickManagerCache tmc = (TickManagerCache) tickManager;
+
+				trackers.addAll( tmc.getTickTrackers() );
+				tmc.getAvgNanoTimeByMachineClass().forEach( ( c, nanos ) -> byMachineClass.merge( c, nanos, Long::sum ) );
+				gridNanos += tmc.getAvgNanoTime();
+				grids++;
+			}
+		}
+
+		sender.sendMessage( new TextComponentTranslation( "commands.ae2.TickcostsTotal", grids, formatNanos( gridNanos ) ) );
+
+		trackers.sort( Comparator.comparingLong( TickTracker::getAvgNanos ).reversed() );
+		sender.sendMessage( new TextComponentTranslation( "commands.ae2.TickcostsNodes", Math.min( entries, trackers.size() ) ) );
+
+		for( final TickTracker tt : trackers.subList( 0, Math.min( entries, trackers.size() ) ) )
+		{
+			final DimensionalCoord location = tt.getNode().getGridBlock().getLocation();
+			final String where = location == null ? "?" : location.toString();
+
+			sender.sendMessage( new TextComponentString(
+					tt.getGridTickable().getClass().getSimpleName() + " @ " + where + ": " + formatNanos( tt.getAvgNanos() ) + " (" + tt
+							.getTicks() + " ticks)" ) );
+		}
+
+		final List<Entry<Class<? extends IGridHost>, Long>> classes = new ArrayList<>( byMachineClass.entrySet() );
+		classes.sort( Entry.<Class<? extends IGridHost>, Long>comparingByValue().reversed() );
+		sender.sendMessage( new TextComponentTranslation( "commands.ae2.TickcostsClasses", Math.min( entries, classes.size() ) ) );
+
+		for( final Entry<Class<? extends IGridHost>, Long> e : classes.subList( 0, Math.min( entries, classes.size() ) ) )
+		{
+			sender.sendMessage( new TextComponentString( e.getKey().getSimpleName() + ": " + formatNanos( e.getValue() ) ) );
+		}
+	}
+
+	private static String formatNanos( final long nanos )
+	{
+		if( nanos < 100000 )
+		{
+			return nanos + "ns";
+		}
+
+		return ( nanos / 100000 ) / 10.0f + "ms";
+	}
+}
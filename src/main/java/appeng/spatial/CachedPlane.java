@@ -20,9 +20,12 @@ package appeng.spatial;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
@@ -61,6 +64,8 @@ public class CachedPlane
 	private final World world;
 	private final IMovableRegistry reg = AEApi.instance().registries().movable();
 	private final List<WorldCoord> updates = new ArrayList<>();
+	private final List<TileEntity> attached = new ArrayList<>();
+	private final List<TileEntity> movedUnloaded = new ArrayList<>();
 	private int verticalBits;
 	private final IBlockState matrixBlockState;
 
@@ -118,6 +123,7 @@ public class CachedPlane
 
 		final IMovableRegistry mr = AEApi.instance().registries().movable();
 
+		long startTime = System.nanoTime();
 		for( int cx = 0; cx < this.cx_size; cx++ )
 		{
 			for( int cz = 0; cz < this.cz_size; cz++ )
@@ -184,21 +190,35 @@ public class CachedPlane
 				}
 			}
 		}
+		AELog.info( "Plane Scan Time: " + ( System.nanoTime() - startTime ) );
 
-		for( final TileEntity te : this.tiles )
+		startTime = System.nanoTime();
+		this.detachTiles();
+		AELog.info( "Tile Detach Time: " + ( System.nanoTime() - startTime ) + " (" + this.tiles.size() + " tiles)" );
+	}
+
+	/**
+	 * Removes all collected tiles from the world lists in a single pass, removing them one by one scans the lists
+	 * once per tile.
+	 */
+	private void detachTiles()
+	{
+		if( this.tiles.isEmpty() )
 		{
-			try
-			{
-				this.getWorld().loadedTileEntityList.remove( te );
-				if( te instanceof ITickable )
-				{
-					this.getWorld().tickableTileEntities.remove( te );
-				}
-			}
-			catch( final Exception e )
-			{
-				AELog.debug( e );
-			}
+			return;
+		}
+
+		final Set<TileEntity> detached = Collections.newSetFromMap( new IdentityHashMap<>( this.tiles.size() ) );
+		detached.addAll( this.tiles );
+
+		try
+		{
+			this.getWorld().loadedTileEntityList.removeAll( detached );
+			this.getWorld().tickableTileEntities.removeAll( detached );
+		}
+		catch( final Exception e )
+		{
+			AELog.debug( e );
 		}
 	}
 
@@ -253,6 +273,7 @@ public class CachedPlane
 			long duration = endTime - startTime;
 			AELog.info( "Block Copy Time: " + duration );
 
+			startTime = System.nanoTime();
 			for( final TileEntity te : this.tiles )
 			{
 				final BlockPos tePOS = te.getPos();
@@ -265,6 +286,14 @@ public class CachedPlane
 				this.addTile( tePOS.getX() - dst.x_offset, tePOS.getY() - dst.y_offset, tePOS.getZ() - dst.z_offset, te, dst, mr );
 			}
 
+			this.attachTiles( mr );
+			dst.attachTiles( mr );
+			endTime = System.nanoTime();
+
+			duration = endTime - startTime;
+			AELog.info( "Tile Move Time: " + duration + " (" + ( this.tiles.size() + dst.tiles.size() ) + " tiles)" );
+
+			startTime = System.nanoTime();
 			for( final NextTickListEntry entry : this.ticks )
 			{
 				final BlockPos tePOS = entry.position;
@@ -276,6 +305,10 @@ public class CachedPlane
 				final BlockPos tePOS = entry.position;
 				this.addTick( tePOS.getX() - dst.x_offset, tePOS.getY() - dst.y_offset, tePOS.getZ() - dst.z_offset, entry );
 			}
+			endTime = System.nanoTime();
+
+			duration = endTime - startTime;
+			AELog.info( "Tick Move Time: " + duration );
 
 			startTime = System.nanoTime();
 			this.updateChunks();
@@ -310,10 +343,18 @@ public class CachedPlane
 			if( c.doNotSkip( y + this.y_offset ) || alternateDestination == null )
 			{
 				final IMovableHandler handler = this.getHandler( te );
+				final BlockPos newPosition = new BlockPos( x + this.x_offset, y + this.y_offset, z + this.z_offset );
 
 				try
 				{
-					handler.moveTile( te, this.world, new BlockPos( x + this.x_offset, y + this.y_offset, z + this.z_offset ) );
+					if( handler == mr.getDefaultHandler() )
+					{
+						// same as the default handler, but the world lists are filled in bulk by attachTiles
+						this.moveTile( te, newPosition );
+						return;
+					}
+
+					handler.moveTile( te, this.world, newPosition );
 				}
 				catch( final Throwable e )
 				{
@@ -347,6 +388,75 @@ public class CachedPlane
 		}
 	}
 
+	private void moveTile( final TileEntity te, final BlockPos newPosition )
+	{
+		te.setWorld( this.world );
+		te.setPos( newPosition );
+
+		final Chunk c = this.world.getChunkFromBlockCoords( newPosition );
+		c.addTileEntity( newPosition, te );
+
+		if( c.isLoaded() )
+		{
+			this.attached.add( te );
+		}
+		else
+		{
+			this.movedUnloaded.add( te );
+		}
+	}
+
+	/**
+	 * Adds the tiles moved by {@link #moveTile} to the world lists in a single pass and only then finishes their move.
+	 */
+	private void attachTiles( final IMovableRegistry mr )
+	{
+		if( !this.attached.isEmpty() )
+		{
+			final List<TileEntity> tickable = new ArrayList<>();
+			for( final TileEntity te : this.attached )
+			{
+				if( te instanceof ITickable )
+				{
+					tickable.add( te );
+				}
+			}
+
+			try
+			{
+				this.world.loadedTileEntityList.addAll( this.attached );
+				this.world.tickableTileEntities.addAll( tickable );
+			}
+			catch( final Exception e )
+			{
+				AELog.debug( e );
+			}
+
+			for( final TileEntity te : this.attached )
+			{
+				try
+				{
+					final BlockPos pos = te.getPos();
+					final IBlockState state = this.world.getBlockState( pos );
+					this.world.notifyBlockUpdate( pos, state, state, 1 );
+					mr.doneMoving( te );
+				}
+				catch( final Throwable e )
+				{
+					AELog.debug( e );
+				}
+			}
+
+			this.attached.clear();
+		}
+
+		for( final TileEntity te : this.movedUnloaded )
+		{
+			mr.doneMoving( te );
+		}
+		this.movedUnloaded.clear();
+	}
+
 	private void updateChunks()
 	{
 
@@ -35,7 +35,7 @@ public class ItemSorters
 
 	public static final Comparator<IAEItemStack> CONFIG_BASED_SORT_BY_NAME = ( o1, o2 ) ->
 	{
-		final int cmp = Platform.getItemDisplayName( o1 ).compareToIgnoreCase( Platform.getItemDisplayName( o2 ) );
+		final int cmp = compareNames( Platform.getItemDisplayName( o1 ), Platform.getItemDisplayName( o2 ) );
 		return applyDirection( cmp );
 	};
 
@@ -43,11 +43,11 @@ public class ItemSorters
 	{
 		final AEItemStack op1 = (AEItemStack) o1;
 		final AEItemStack op2 = (AEItemStack) o2;
-		int cmp = op1.getModID().compareToIgnoreCase( op2.getModID() );
+		int cmp = compareMods( op1.getModID(), op2.getModID() );
 
 		if( cmp == 0 )
 		{
-			cmp = Platform.getItemDisplayName( o1 ).compareToIgnoreCase( Platform.getItemDisplayName( o2 ) );
+			cmp = compareNames( Platform.getItemDisplayName( o1 ), Platform.getItemDisplayName( o2 ) );
 		}
 
 		return applyDirection( cmp );
@@ -55,7 +55,7 @@ public class ItemSorters
 
 	public static final Comparator<IAEItemStack> CONFIG_BASED_SORT_BY_SIZE = ( o1, o2 ) ->
 	{
-		final int cmp = Long.compare( o2.getStackSize(), o1.getStackSize() );
+		final int cmp = compareSizes( o1.getStackSize(), o2.getStackSize() );
 		return applyDirection( cmp );
 	};
 
@@ -89,6 +89,24 @@ public class ItemSorters
 		}
 	}
 
+	/**
+	 * The orders of the comparators above in ascending direction, for callers which already know the compared values.
+	 */
+	public static int compareNames( final String name1, final String name2 )
+	{
+		return name1.compareToIgnoreCase( name2 );
+	}
+
+	public static int compareMods( final String modId1, final String modId2 )
+	{
+		return modId1.compareToIgnoreCase( modId2 );
+	}
+
+	public static int compareSizes( final long size1, final long size2 )
+	{
+		return Long.compare( size2, size1 );
+	}
+
 	private static SortDir getDirection()
 	{
 		return Direction;
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util;
+
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+
+/**
+ * A thread safe interner only holding its values weakly.
+ *
+ * Lookups do not lock and can use any key the caller can match against the interned values, so no probe value has to
+ * be built. The given hash has to match {@link Object#hashCode()} of the value the key would create. Entries of
+ * collected values are removed from the reference queue by later calls.
+ */
+public final class WeakInterner<T>
+{
+
+	private final ConcurrentHashMap<Object, Entry<T>> map = new ConcurrentHashMap<>();
+	private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+	public <K> T intern( final K key, final int hash, final BiPredicate<K, T> matcher, final Function<K, T> factory )
+	{
+		this.expungeStaleEntries();
+
+		final Entry<T> found = this.map.get( new Probe<>( key, hash, matcher ) );
+		if( found != null )
+		{
+			final T value = found.get();
+			if( value != null )
+			{
+				return value;
+			}
+		}
+
+		final T created = factory.apply( key );
+		final Entry<T> entry = new Entry<>( created, hash, this.queue );
+
+		while( true )
+		{
+			final Entry<T> existing = this.map.putIfAbsent( entry, entry );
+			if( existing == null )
+			{
+				return created;
+			}
+
+			final T value = existing.get();
+			if( value != null )
+			{
+				return value;
+			}
+
+			// collected but not expunged yet.
+			this.map.remove( existing, existing );
+		}
+	}
+
+	public int size()
+	{
+		this.expungeStaleEntries();
+		return this.map.size();
+	}
+
+	private void expungeStaleEntries()
+	{
+		Reference<? extends T> ref;
+		while( ( ref = this.queue.poll() ) != null )
+		{
+			this.map.remove( ref, ref );
+		}
+	}
+
+	private static final class Entry<T> extends WeakReference<T>
+	{
+		private final int hash;
+
+		private Entry( final T value, final int hash, final ReferenceQueue<T> queue )
+		{
+			super( value, queue );
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( obj == this )
+			{
+				return true;
+			}
+
+			if( obj instanceof Probe )
+			{
+				return obj.equals( this );
+			}
+
+			if( obj instanceof Entry )
+			{
+				final Object value = this.get();
+				return value != null && value.equals( ( (Entry<?>) obj ).get() );
+			}
+
+			return false;
+		}
+	}
+
+	private static final class Probe<K, T>
+	{
+		private final K key;
+		private final int hash;
+		private final BiPredicate<K, T> matcher;
+
+		private Probe( final K key, final int hash, final BiPredicate<K, T> matcher )
+		{
+			this.key = key;
+			this.hash = hash;
+			this.matcher = matcher;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@SuppressWarnings( "unchecked" )
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( obj instanceof Entry )
+			{
+				final T value = ( (Entry<T>) obj ).get();
+				return value != null && this.matcher.test( this.key, value );
+			}
+
+			return obj == this;
+		}
+	}
+}
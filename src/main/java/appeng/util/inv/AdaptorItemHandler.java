@@ -20,6 +20,9 @@ package appeng.util.inv;
 
 
 import java.util.Iterator;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
 
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.items.IItemHandler;
@@ -29,9 +32,10 @@ import appeng.util.InventoryAdaptor;
 import appeng.util.Platform;
 
 
-public class AdaptorItemHandler extends InventoryAdaptor
+public class AdaptorItemHandler extends InventoryAdaptor implements ISlotAdaptor
 {
 	protected final IItemHandler itemHandler;
+	private IntConsumer slotListener;
 
 	public AdaptorItemHandler( IItemHandler itemHandler )
 	{
@@ -80,6 +84,8 @@ public class AdaptorItemHandler extends InventoryAdaptor
 				continue;
 			}
 
+			this.slotChanged( slot );
+
 			if( rv.isEmpty() )
 			{
 				// Use the first stack as a template for the result
@@ -177,6 +183,11 @@ public class AdaptorItemHandler extends InventoryAdaptor
 
 			// Attempt extracting it
 			extracted = this.itemHandler.extractItem( slot, amount, false );
+
+			if( !extracted.isEmpty() )
+			{
+				this.slotChanged( slot );
+			}
 		}
 
 		return extracted;
@@ -234,7 +245,7 @@ public class AdaptorItemHandler extends InventoryAdaptor
 
 		for( int slot = 0; slot < this.itemHandler.getSlots(); slot++ )
 		{
-			left = this.itemHandler.insertItem( slot, left, simulate );
+			left = this.insertItem( slot, left, simulate );
 
 			if( left.isEmpty() )
 			{
@@ -245,6 +256,47 @@ public class AdaptorItemHandler extends InventoryAdaptor
 		return left;
 	}
 
+	protected ItemStack insertItem( final int slot, final ItemStack stack, final boolean simulate )
+	{
+		final ItemStack left = this.itemHandler.insertItem( slot, stack, simulate );
+
+		if( !simulate && left.getCount() != stack.getCount() )
+		{
+			this.slotChanged( slot );
+		}
+
+		return left;
+	}
+
+	protected void slotChanged( final int slot )
+	{
+		if( this.slotListener != null )
+		{
+			this.slotListener.accept( slot );
+		}
+	}
+
+	@Override
+	public int getSlots()
+	{
+		return this.itemHandler.getSlots();
+	}
+
+	@Override
+	public ItemSlot getSlot( final int slot, final ItemSlot target )
+	{
+		target.setExtractable( !this.itemHandler.extractItem( slot, 1, true ).isEmpty() );
+		target.setItemStack( this.itemHandler.getStackInSlot( slot ) );
+		target.setSlot( slot );
+		return target;
+	}
+
+	@Override
+	public void setSlotListener( @Nullable final IntConsumer listener )
+	{
+		this.slotListener = listener;
+	}
+
 	@Override
 	public boolean containsItems()
 	{
@@ -52,7 +52,7 @@ public class AdaptorItemHandlerPlayerInv extends AdaptorItemHandler
 
 			if( Platform.itemComparisons().isSameItem( is, left ) )
 			{
-				left = this.itemHandler.insertItem( slot, left, simulate );
+				left = this.insertItem( slot, left, simulate );
 			}
 			if( left.isEmpty() )
 			{
@@ -62,7 +62,7 @@ public class AdaptorItemHandlerPlayerInv extends AdaptorItemHandler
 
 		for( int slot = 0; slot < this.itemHandler.getSlots(); slot++ )
 		{
-			left = this.itemHandler.insertItem( slot, left, simulate );
+			left = this.insertItem( slot, left, simulate );
 			if( left.isEmpty() )
 			{
 				return ItemStack.EMPTY;
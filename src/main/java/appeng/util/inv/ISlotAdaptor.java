@@ -0,0 +1,45 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.inv;
+
+
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
+
+
+/**
+ * Implemented by inventory adaptors which can read single slots and report the slots changed by their own operations,
+ * so a monitor does not have to rescan the whole inventory after every insert or extract.
+ */
+public interface ISlotAdaptor
+{
+
+	int getSlots();
+
+	/**
+	 * Reads a single slot into the given {@link ItemSlot}, the same way iterating the adaptor would.
+	 */
+	ItemSlot getSlot( int slot, ItemSlot target );
+
+	/**
+	 * @param listener receives every slot changed by a modulating add or remove, or null to stop reporting them.
+	 */
+	void setSlotListener( @Nullable IntConsumer listener );
+}
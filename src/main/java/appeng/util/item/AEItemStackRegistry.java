@@ -24,26 +24,30 @@
 package appeng.util.item;
 
 
-import java.lang.ref.WeakReference;
-import java.util.WeakHashMap;
-
 import javax.annotation.Nonnull;
 
 import net.minecraft.item.ItemStack;
 
 import appeng.util.Platform;
+import appeng.util.WeakInterner;
 
 
+/**
+ * Interns the shared definitions of item stacks, so equal stacks share one {@link AESharedItemStack}.
+ *
+ * Lookups are lock free and do not modify the looked up stack, the client and integrated server threads do not block
+ * each other anymore.
+ */
 public final class AEItemStackRegistry
 {
-	private static final WeakHashMap<AESharedItemStack, WeakReference<AESharedItemStack>> SERVER_REGISTRY = new WeakHashMap<>();
-	private static final WeakHashMap<AESharedItemStack, WeakReference<AESharedItemStack>> CLIENT_REGISTRY = new WeakHashMap<>();
+	private static final WeakInterner<AESharedItemStack> SERVER_REGISTRY = new WeakInterner<>();
+	private static final WeakInterner<AESharedItemStack> CLIENT_REGISTRY = new WeakInterner<>();
 
 	private AEItemStackRegistry()
 	{
 	}
 
-	private static WeakHashMap<AESharedItemStack, WeakReference<AESharedItemStack>> registry()
+	private static WeakInterner<AESharedItemStack> registry()
 	{
 		if( Platform.isClient() )
 		{
@@ -55,32 +59,31 @@ public final class AEItemStackRegistry
 		}
 	}
 
-	static synchronized AESharedItemStack getRegisteredStack( final @Nonnull ItemStack itemStack )
+	/**
+	 * An interned key for the type of the stack, it is the same for equal stacks regardless of their size. Lookups
+	 * keyed by it only compare the stacks when the hashes collide.
+	 *
+	 * @param itemStack a non empty stack, which is not modified.
+	 */
+	public static Object getStackKey( final @Nonnull ItemStack itemStack )
+	{
+		return getRegisteredStack( itemStack );
+	}
+
+	static AESharedItemStack getRegisteredStack( final @Nonnull ItemStack itemStack )
 	{
 		if( itemStack.isEmpty() )
 		{
 			throw new IllegalArgumentException( "stack cannot be empty" );
 		}
 
-		int oldStackSize = itemStack.getCount();
-		itemStack.setCount( 1 );
+		final int hash = AESharedItemStack.makeHashCode( itemStack );
 
-		AESharedItemStack search = new AESharedItemStack( itemStack );
-		WeakReference<AESharedItemStack> weak = registry().get( search );
-		AESharedItemStack ret = null;
-
-		if( weak != null )
-		{
-			ret = weak.get();
-		}
-
-		if( ret == null )
+		return registry().intern( itemStack, hash, ( stack, shared ) -> shared.matches( stack ), stack ->
 		{
-			ret = new AESharedItemStack( itemStack.copy() );
-			registry().put( ret, new WeakReference<>( ret ) );
-		}
-		itemStack.setCount( oldStackSize );
-
-		return ret;
+			final ItemStack definition = stack.copy();
+			definition.setCount( 1 );
+			return new AESharedItemStack( definition, hash );
+		} );
 	}
 }
@@ -41,11 +41,20 @@ final class AESharedItemStack implements Comparable<AESharedItemStack>
 	private final int hashCode;
 
 	public AESharedItemStack( final ItemStack itemStack )
+	{
+		this( itemStack, makeHashCode( itemStack ) );
+	}
+
+	/**
+	 * @param hashCode has to be the result of {@link #makeHashCode(ItemStack)} for an equal stack, it avoids hashing the
+	 * NBT twice when registering a new definition.
+	 */
+	AESharedItemStack( final ItemStack itemStack, final int hashCode )
 	{
 		this.itemStack = itemStack;
 		this.itemId = Item.getIdFromItem( itemStack.getItem() );
 		this.itemDamage = itemStack.getItemDamage();
-		this.hashCode = this.makeHashCode();
+		this.hashCode = hashCode;
 	}
 
 	Bounds getBounds( final FuzzyMode fuzzy, final boolean ignoreMeta )
@@ -93,6 +102,20 @@ final class AESharedItemStack implements Comparable<AESharedItemStack>
 		return false;
 	}
 
+	/**
+	 * Same as {@link #equals(Object)} against a definition of the given stack, but ignoring its size.
+	 */
+	boolean matches( final ItemStack other )
+	{
+		if( this.itemStack == other )
+		{
+			return true;
+		}
+
+		return this.itemStack.getItem() == other.getItem() && this.itemDamage == other.getItemDamage() && ItemStack.areItemStackTagsEqual( this.itemStack,
+				other ) && this.itemStack.areCapsCompatible( other );
+	}
+
 	@Override
 	public int compareTo( final AESharedItemStack b )
 	{
@@ -146,9 +169,9 @@ final class AESharedItemStack implements Comparable<AESharedItemStack>
 		return System.identityHashCode( this.itemStack.getTagCompound() ) - System.identityHashCode( b.getTagCompound() );
 	}
 
-	private int makeHashCode()
+	static int makeHashCode( final ItemStack itemStack )
 	{
-		return Objects.hash( this.itemId, this.itemDamage, this.itemStack.hasTagCompound() ? this.itemStack.getTagCompound() : 0 );
+		return Objects.hash( Item.getIdFromItem( itemStack.getItem() ), itemStack.getItemDamage(), itemStack.hasTagCompound() ? itemStack.getTagCompound() : 0 );
 	}
 
 	/**
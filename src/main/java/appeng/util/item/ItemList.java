@@ -22,9 +22,12 @@ package appeng.util.item;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
 
 import net.minecraftforge.oredict.OreDictionary;
 
@@ -34,10 +37,40 @@ import appeng.api.storage.data.IItemList;
 import appeng.util.item.AESharedItemStack.Bounds;
 
 
+/**
+ * Stores the records in an open addressing hash table keyed on the shared stack, so precise lookups no longer have to
+ * walk a sorted map. The sorted index required by fuzzy lookups is only built once the first fuzzy search happens and
+ * is maintained incrementally afterwards.
+ */
 public final class ItemList implements IItemList<IAEItemStack>
 {
 
-	private final NavigableMap<AESharedItemStack, IAEItemStack> records = new ConcurrentSkipListMap<>();
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Marks a removed slot, probing has to continue past it.
+	 */
+	private static final Object TOMBSTONE = new Object();
+
+	private Object[] keys = new Object[INITIAL_CAPACITY];
+	private IAEItemStack[] values = new IAEItemStack[INITIAL_CAPACITY];
+	private int[] hashes = new int[INITIAL_CAPACITY];
+
+	/**
+	 * number of live records
+	 */
+	private int size;
+
+	/**
+	 * number of slots which are either live or a tombstone
+	 */
+	private int used;
+
+	/**
+	 * item id -> records of this item sorted by {@link AESharedItemStack#compareTo(AESharedItemStack)}, null until
+	 * needed.
+	 */
+	private Map<Integer, NavigableMap<AESharedItemStack, IAEItemStack>> fuzzyIndex;
 
 	@Override
 	public void add( final IAEItemStack option )
@@ -47,7 +80,7 @@ public final class ItemList implements IItemList<IAEItemStack>
 			return;
 		}
 
-		final IAEItemStack st = this.records.get( ( (AEItemStack) option ).getSharedStack() );
+		final IAEItemStack st = this.getRecord( ( (AEItemStack) option ).getSharedStack() );
 
 		if( st != null )
 		{
@@ -68,7 +101,7 @@ public final class ItemList implements IItemList<IAEItemStack>
 			return null;
 		}
 
-		return this.records.get( ( (AEItemStack) itemStack ).getSharedStack() );
+		return this.getRecord( ( (AEItemStack) itemStack ).getSharedStack() );
 	}
 
 	@Override
@@ -100,7 +133,7 @@ public final class ItemList implements IItemList<IAEItemStack>
 
 				return output;
 			}
-		} ).orElse( this.findFuzzyDamage( ais, fuzzy, false ) );
+		} ).orElseGet( () -> this.findFuzzyDamage( ais, fuzzy, false ) );
 	}
 
 	@Override
@@ -117,7 +150,7 @@ public final class ItemList implements IItemList<IAEItemStack>
 			return;
 		}
 
-		final IAEItemStack st = this.records.get( ( (AEItemStack) option ).getSharedStack() );
+		final IAEItemStack st = this.getRecord( ( (AEItemStack) option ).getSharedStack() );
 
 		if( st != null )
 		{
@@ -143,7 +176,7 @@ public final class ItemList implements IItemList<IAEItemStack>
 			return;
 		}
 
-		final IAEItemStack st = this.records.get( ( (AEItemStack) option ).getSharedStack() );
+		final IAEItemStack st = this.getRecord( ( (AEItemStack) option ).getSharedStack() );
 
 		if( st != null )
 		{
@@ -166,7 +199,7 @@ public final class ItemList implements IItemList<IAEItemStack>
 			return;
 		}
 
-		final IAEItemStack st = this.records.get( ( (AEItemStack) option ).getSharedStack() );
+		final IAEItemStack st = this.getRecord( ( (AEItemStack) option ).getSharedStack() );
 
 		if( st != null )
 		{
@@ -196,13 +229,13 @@ public final class ItemList implements IItemList<IAEItemStack>
 	@Override
 	public int size()
 	{
-		return this.records.size();
+		return this.size;
 	}
 
 	@Override
 	public Iterator<IAEItemStack> iterator()
 	{
-		return new MeaningfulItemIterator<>( this.records.values().iterator() );
+		return new MeaningfulItemIterator<>( new RecordIterator() );
 	}
 
 	@Override
@@ -214,16 +247,273 @@ public final class ItemList implements IItemList<IAEItemStack>
 		}
 	}
 
-	private IAEItemStack putItemRecord( final IAEItemStack itemStack )
+	private static int mix( final int hashCode )
+	{
+		final int h = hashCode * 0x9E3779B9;
+		return h ^ ( h >>> 16 );
+	}
+
+	private int indexOf( final AESharedItemStack key, final int hash )
+	{
+		final Object[] k = this.keys;
+		final int mask = k.length - 1;
+		int idx = hash & mask;
+
+		while( k[idx] != null )
+		{
+			final Object current = k[idx];
+
+			if( current != TOMBSTONE && this.hashes[idx] == hash && ( current == key || current.equals( key ) ) )
+			{
+				return idx;
+			}
+
+			idx = ( idx + 1 ) & mask;
+		}
+
+		return -1;
+	}
+
+	private IAEItemStack getRecord( final AESharedItemStack key )
+	{
+		final int idx = this.indexOf( key, mix( key.hashCode() ) );
+		return idx < 0 ? null : this.values[idx];
+	}
+
+	private void putItemRecord( final IAEItemStack itemStack )
+	{
+		final AESharedItemStack key = ( (AEItemStack) itemStack ).getSharedStack();
+		final int hash = mix( key.hashCode() );
+		final int existing = this.indexOf( key, hash );
+
+		if( existing >= 0 )
+		{
+			final IAEItemStack old = this.values[existing];
+			this.values[existing] = itemStack;
+			this.unindexFuzzy( key, old );
+			this.indexFuzzy( key, itemStack );
+			return;
+		}
+
+		if( ( this.used + 1 ) * 2 > this.keys.length )
+		{
+			this.rehash();
+		}
+
+		final Object[] k = this.keys;
+		final int mask = k.length - 1;
+		int idx = hash & mask;
+
+		while( k[idx] != null && k[idx] != TOMBSTONE )
+		{
+			idx = ( idx + 1 ) & mask;
+		}
+
+		if( k[idx] == null )
+		{
+			this.used++;
+		}
+
+		k[idx] = key;
+		this.values[idx] = itemStack;
+		this.hashes[idx] = hash;
+		this.size++;
+
+		this.indexFuzzy( key, itemStack );
+	}
+
+	private void removeAt( final int idx )
 	{
-		return this.records.put( ( (AEItemStack) itemStack ).getSharedStack(), itemStack );
+		final AESharedItemStack key = (AESharedItemStack) this.keys[idx];
+		final IAEItemStack value = this.values[idx];
+
+		this.keys[idx] = TOMBSTONE;
+		this.values[idx] = null;
+		this.size--;
+
+		this.unindexFuzzy( key, value );
+	}
+
+	/**
+	 * Doubles the table once live records fill a quarter of it, otherwise only drops the accumulated tombstones.
+	 */
+	private void rehash()
+	{
+		int capacity = this.keys.length;
+		if( ( this.size + 1 ) * 4 > capacity )
+		{
+			capacity *= 2;
+		}
+
+		final Object[] oldKeys = this.keys;
+		final IAEItemStack[] oldValues = this.values;
+		final int[] oldHashes = this.hashes;
+
+		final Object[] newKeys = new Object[capacity];
+		final IAEItemStack[] newValues = new IAEItemStack[capacity];
+		final int[] newHashes = new int[capacity];
+		final int mask = capacity - 1;
+
+		for( int i = 0; i < oldKeys.length; i++ )
+		{
+			if( oldKeys[i] != null && oldKeys[i] != TOMBSTONE )
+			{
+				int idx = oldHashes[i] & mask;
+				while( newKeys[idx] != null )
+				{
+					idx = ( idx + 1 ) & mask;
+				}
+
+				newKeys[idx] = oldKeys[i];
+				newValues[idx] = oldValues[i];
+				newHashes[idx] = oldHashes[i];
+			}
+		}
+
+		this.keys = newKeys;
+		this.values = newValues;
+		this.hashes = newHashes;
+		this.used = this.size;
+	}
+
+	private void indexFuzzy( final AESharedItemStack key, final IAEItemStack value )
+	{
+		if( this.fuzzyIndex != null )
+		{
+			this.fuzzyIndex.computeIfAbsent( key.getItemID(), id -> new TreeMap<>() ).put( key, value );
+		}
+	}
+
+	private void unindexFuzzy( final AESharedItemStack key, final IAEItemStack value )
+	{
+		if( this.fuzzyIndex != null )
+		{
+			final NavigableMap<AESharedItemStack, IAEItemStack> byItem = this.fuzzyIndex.get( key.getItemID() );
+
+			if( byItem != null )
+			{
+				byItem.remove( key, value );
+
+				if( byItem.isEmpty() )
+				{
+					this.fuzzyIndex.remove( key.getItemID() );
+				}
+			}
+		}
+	}
+
+	private Map<Integer, NavigableMap<AESharedItemStack, IAEItemStack>> getFuzzyIndex()
+	{
+		if( this.fuzzyIndex == null )
+		{
+			this.fuzzyIndex = new HashMap<>();
+
+			for( int i = 0; i < this.keys.length; i++ )
+			{
+				final Object key = this.keys[i];
+
+				if( key != null && key != TOMBSTONE )
+				{
+					this.indexFuzzy( (AESharedItemStack) key, this.values[i] );
+				}
+			}
+		}
+
+		return this.fuzzyIndex;
 	}
 
 	private Collection<IAEItemStack> findFuzzyDamage( final IAEItemStack filter, final FuzzyMode fuzzy, final boolean ignoreMeta )
 	{
 		final AEItemStack itemStack = (AEItemStack) filter;
-		final Bounds bounds = itemStack.getSharedStack().getBounds( fuzzy, ignoreMeta );
+		final AESharedItemStack sharedStack = itemStack.getSharedStack();
+		final NavigableMap<AESharedItemStack, IAEItemStack> byItem = this.getFuzzyIndex().get( sharedStack.getItemID() );
+
+		if( byItem == null )
+		{
+			return Collections.emptyList();
+		}
 
-		return this.records.subMap( bounds.lower(), true, bounds.upper(), true ).descendingMap().values();
+		final Bounds bounds = sharedStack.getBounds( fuzzy, ignoreMeta );
+
+		// copied, callers are free to modify this list while walking the result
+		return new ArrayList<>( byItem.subMap( bounds.lower(), true, bounds.upper(), true ).descendingMap().values() );
+	}
+
+	/**
+	 * Walks the table slots in order. Removing only leaves a tombstone behind, so it never moves records the iterator
+	 * has not visited yet.
+	 */
+	private final class RecordIterator implements Iterator<IAEItemStack>
+	{
+		private final Object[] iteratedKeys = ItemList.this.keys;
+		private int pos = -1;
+		private IAEItemStack nextValue;
+		private int currentPos = -1;
+		private AESharedItemStack currentKey;
+
+		@Override
+		public boolean hasNext()
+		{
+			while( this.nextValue == null && this.pos + 1 < this.iteratedKeys.length )
+			{
+				this.pos++;
+				final Object key = this.iteratedKeys[this.pos];
+
+				if( key != null && key != TOMBSTONE )
+				{
+					if( this.iteratedKeys == ItemList.this.keys )
+					{
+						this.nextValue = ItemList.this.values[this.pos];
+					}
+					else
+					{
+						// the table was rehashed while iterating, fall back to a lookup.
+						this.nextValue = ItemList.this.getRecord( (AESharedItemStack) key );
+					}
+				}
+			}
+
+			return this.nextValue != null;
+		}
+
+		@Override
+		public IAEItemStack next()
+		{
+			if( !this.hasNext() )
+			{
+				throw new NoSuchElementException();
+			}
+
+			final IAEItemStack result = this.nextValue;
+			this.nextValue = null;
+			this.currentPos = this.pos;
+			this.currentKey = (AESharedItemStack) this.iteratedKeys[this.pos];
+			return result;
+		}
+
+		@Override
+		public void remove()
+		{
+			if( this.currentKey == null )
+			{
+				throw new IllegalStateException();
+			}
+
+			if( this.iteratedKeys == ItemList.this.keys && this.iteratedKeys[this.currentPos] == this.currentKey )
+			{
+				ItemList.this.removeAt( this.currentPos );
+			}
+			else
+			{
+				final int idx = ItemList.this.indexOf( this.currentKey, mix( this.currentKey.hashCode() ) );
+
+				if( idx >= 0 )
+				{
+					ItemList.this.removeAt( idx );
+				}
+			}
+
+			this.currentKey = null;
+		}
 	}
 }
@@ -0,0 +1,205 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+
+package appeng.core.worlddata;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests for {@link GridStorageFile}
+ */
+public class GridStorageFileTest
+{
+	private static final byte[] FIRST = { 1, 2, 3 };
+	private static final byte[] SECOND = { 4, 5, 6, 7 };
+
+	@Test
+	public void testReopenKeepsLatestRecords() throws IOException
+	{
+		final File file = createFile();
+
+		try
+		{
+			final GridStorageFile storage = new GridStorageFile( file );
+			storage.open();
+			storage.write( 1, FIRST );
+			storage.write( 2, FIRST );
+			storage.write( 1, SECOND );
+			storage.remove( 2 );
+			storage.setCounter( 3 );
+			storage.close();
+
+			final GridStorageFile reopened = new GridStorageFile( file );
+			reopened.open();
+
+			Assert.assertArrayEquals( SECOND, reopened.read( 1 ) );
+			Assert.assertNull( reopened.read( 2 ) );
+			Assert.assertEquals( 3, reopened.getCounter() );
+			reopened.close();
+		}
+		finally
+		{
+			delete( file );
+		}
+	}
+
+	@Test
+	public void testIncompleteRecordIsDropped() throws IOException
+	{
+		final File file = createFile();
+
+		try
+		{
+			final GridStorageFile storage = new GridStorageFile( file );
+			storage.open();
+			storage.write( 1, FIRST );
+			storage.write( 2, SECOND );
+			storage.close();
+
+			try( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) )
+			{
+				raf.setLength( raf.length() - 1 );
+			}
+
+			final GridStorageFile reopened = new GridStorageFile( file );
+			reopened.open();
+
+			Assert.assertArrayEquals( FIRST, reopened.read( 1 ) );
+			Assert.assertNull( reopened.read( 2 ) );
+
+			reopened.write( 3, SECOND );
+			reopened.close();
+
+			final GridStorageFile again = new GridStorageFile( file );
+			again.open();
+
+			Assert.assertArrayEquals( SECOND, again.read( 3 ) );
+			again.close();
+		}
+		finally
+		{
+			delete( file );
+		}
+	}
+
+	@Test
+	public void testGarbageTailIsDropped() throws IOException
+	{
+		final File file = createFile();
+
+		try
+		{
+			final GridStorageFile storage = new GridStorageFile( file );
+			storage.open();
+			storage.write( 1, FIRST );
+			storage.close();
+
+			final long valid = file.length();
+
+			try( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) )
+			{
+				raf.seek( valid );
+				raf.write( new byte[] { 42, 0, 0, 0, 0, 0, 0, 0, 2, 0, 0, 0, 0 } );
+			}
+
+			final GridStorageFile reopened = new GridStorageFile( file );
+			reopened.open();
+
+			Assert.assertArrayEquals( FIRST, reopened.read( 1 ) );
+			Assert.assertEquals( valid, file.length() );
+			Assert.assertEquals( valid + 13, corruptCopy( file ).length() );
+
+			reopened.write( 2, SECOND );
+			reopened.close();
+
+			final GridStorageFile again = new GridStorageFile( file );
+			again.open();
+
+			Assert.assertArrayEquals( FIRST, again.read( 1 ) );
+			Assert.assertArrayEquals( SECOND, again.read( 2 ) );
+			again.close();
+		}
+		finally
+		{
+			delete( file );
+		}
+	}
+
+	@Test
+	public void testCompaction() throws IOException
+	{
+		final File file = createFile();
+
+		try
+		{
+			final byte[] large = new byte[32 * 1024];
+			large[0] = 42;
+
+			final GridStorageFile storage = new GridStorageFile( file );
+			storage.open();
+
+			for( int x = 0; x < 8; x++ )
+			{
+				storage.write( 1, large );
+			}
+
+			storage.write( 2, FIRST );
+			storage.setCounter( 5 );
+
+			final long before = file.length();
+			storage.compactIfNeeded();
+
+			Assert.assertTrue( file.length() < before );
+			Assert.assertArrayEquals( large, storage.read( 1 ) );
+			Assert.assertArrayEquals( FIRST, storage.read( 2 ) );
+			Assert.assertEquals( 5, storage.getCounter() );
+			storage.close();
+		}
+		finally
+		{
+			delete( file );
+		}
+	}
+
+	private static File createFile() throws IOException
+	{
+		final File directory = Files.createTempDirectory( "ae2-gridstorage" ).toFile();
+		return new File( directory, "gridstorage.dat" );
+	}
+
+	private static File corruptCopy( final File file )
+	{
+		return new File( file.getParentFile(), file.getName() + ".corrupt" );
+	}
+
+	private static void delete( final File file )
+	{
+		file.delete();
+		corruptCopy( file ).delete();
+		file.getParentFile().delete();
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2018, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class TimingWheelTest
+{
+
+	private static final int TICKABLES = 10000;
+	private static final int TICKS = 2000;
+
+	@Test
+	public void testScheduleAndPoll()
+	{
+		final TimingWheel<String> wheel = new TimingWheel<>( 8, 0 );
+		final TimingWheel.Entry<String> a = new TimingWheel.Entry<>( "a" );
+		final TimingWheel.Entry<String> b = new TimingWheel.Entry<>( "b" );
+
+		wheel.schedule( a, 3 );
+		wheel.schedule( b, 20 );
+		assertEquals( 2, wheel.size() );
+
+		wheel.advanceTo( 2 );
+		assertNull( wheel.poll() );
+
+		wheel.advanceTo( 3 );
+		assertSame( "a", wheel.poll() );
+		assertNull( wheel.poll() );
+		assertFalse( a.isScheduled() );
+
+		// b shares its slot with tick 4 and 12, but is only due in the third round.
+		wheel.advanceTo( 12 );
+		assertNull( wheel.poll() );
+
+		wheel.advanceTo( 20 );
+		assertSame( "b", wheel.poll() );
+		assertTrue( wheel.isEmpty() );
+	}
+
+	@Test
+	public void testRescheduleAndCancel()
+	{
+		final TimingWheel<String> wheel = new TimingWheel<>( 8, 0 );
+		final TimingWheel.Entry<String> a = new TimingWheel.Entry<>( "a" );
+
+		wheel.schedule( a, 5 );
+		wheel.schedule( a, 2 );
+		assertEquals( 1, wheel.size() );
+
+		wheel.advanceTo( 2 );
+		assertSame( "a", wheel.poll() );
+
+		wheel.schedule( a, 6 );
+		assertTrue( wheel.cancel( a ) );
+		assertFalse( wheel.cancel( a ) );
+
+		wheel.advanceTo( 10 );
+		assertNull( wheel.poll() );
+		assertTrue( wheel.isEmpty() );
+	}
+
+	@Test
+	public void testOverdueIsPolledImmediately()
+	{
+		final TimingWheel<String> wheel = new TimingWheel<>( 8, 10 );
+		final TimingWheel.Entry<String> a = new TimingWheel.Entry<>( "a" );
+
+		wheel.schedule( a, 4 );
+		assertSame( "a", wheel.poll() );
+	}
+
+	/**
+	 * Simulates a grid with 10k tickables using random rates and compares the ticks against a priority queue.
+	 */
+	@Test
+	public void testMatchesPriorityQueue()
+	{
+		final Random random = new Random( 42 );
+		final TimingWheel<Tickable> wheel = new TimingWheel<>( 128, 0 );
+		final PriorityQueue<Tickable> queue = new PriorityQueue<>( ( x, y ) -> Long.compare( x.queueDue, y.queueDue ) );
+		final List<Tickable> tickables = new ArrayList<>();
+
+		for( int i = 0; i < TICKABLES; i++ )
+		{
+			final Tickable t = new Tickable( i );
+			final long due = 1 + random.nextInt( 300 );
+
+			t.queueDue = due;
+			queue.add( t );
+			wheel.schedule( t.entry, due );
+			tickables.add( t );
+		}
+
+		for( long tick = 1; tick <= TICKS; tick++ )
+		{
+			long expected = 0;
+			final List<Tickable> ticked = new ArrayList<>();
+
+			while( !queue.isEmpty() && queue.peek().queueDue <= tick )
+			{
+				final Tickable t = queue.poll();
+				expected += t.id;
+				ticked.add( t );
+			}
+
+			wheel.advanceTo( tick );
+
+			long actual = 0;
+			int count = 0;
+			Tickable t;
+			while( ( t = wheel.poll() ) != null )
+			{
+				assertEquals( tick, t.entry.getDue() );
+				actual += t.id;
+				count++;
+			}
+
+			assertEquals( ticked.size(), count );
+			assertEquals( expected, actual );
+
+			for( final Tickable done : ticked )
+			{
+				// mimics TickRateModulation, every rate up to a few rounds of the wheel
+				final long due = tick + 1 + random.nextInt( 300 );
+
+				done.queueDue = due;
+				queue.add( done );
+				wheel.schedule( done.entry, due );
+			}
+
+			// alerted devices get rescheduled while they are waiting.
+			final Tickable alerted = tickables.get( random.nextInt( TICKABLES ) );
+			if( queue.remove( alerted ) )
+			{
+				alerted.queueDue = tick + 1;
+				queue.add( alerted );
+				wheel.schedule( alerted.entry, tick + 1 );
+			}
+		}
+
+		assertEquals( queue.size(), wheel.size() );
+	}
+
+	private static final class Tickable
+	{
+		private final int id;
+		private final TimingWheel.Entry<Tickable> entry = new TimingWheel.Entry<>( this );
+		private long queueDue;
+
+		private Tickable( final int id )
+		{
+			this.id = id;
+		}
+	}
+}
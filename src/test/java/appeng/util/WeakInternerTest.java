@@ -0,0 +1,234 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+
+public class WeakInternerTest
+{
+
+	private static final int THREADS = 8;
+	private static final int KEYS = 2000;
+	private static final int ROUNDS = 50;
+
+	@Test
+	public void testInternsEqualKeys()
+	{
+		final WeakInterner<Value> interner = new WeakInterner<>();
+		final AtomicInteger created = new AtomicInteger();
+
+		final Stack a = new Stack( 7, 32 );
+		final Value first = intern( interner, a, created );
+		final Value second = intern( interner, new Stack( 7, 1 ), created );
+
+		assertSame( first, second );
+		assertEquals( 1, created.get() );
+		assertEquals( 1, interner.size() );
+		// the looked up key keeps its size.
+		assertEquals( 32, a.size );
+		assertEquals( 1, first.size );
+
+		final Value other = intern( interner, new Stack( 8, 1 ), created );
+		assertTrue( other != first );
+		assertEquals( 2, created.get() );
+		assertEquals( 2, interner.size() );
+	}
+
+	/**
+	 * Every thread has to get the same instance for the same key, while all threads intern the same keys at once.
+	 */
+	@Test
+	public void testContention() throws InterruptedException
+	{
+		final WeakInterner<Value> interner = new WeakInterner<>();
+		final AtomicInteger created = new AtomicInteger();
+		final AtomicReferenceArray<Value> seen = new AtomicReferenceArray<>( KEYS );
+		final AtomicInteger mismatches = new AtomicInteger();
+
+		run( () ->
+		{
+			for( int round = 0; round < ROUNDS; round++ )
+			{
+				for( int i = 0; i < KEYS; i++ )
+				{
+					final Value v = intern( interner, new Stack( i, 1 + round ), created );
+					if( !seen.compareAndSet( i, null, v ) && seen.get( i ) != v )
+					{
+						mismatches.incrementAndGet();
+					}
+				}
+			}
+		} );
+
+		assertEquals( 0, mismatches.get() );
+		// racing misses may create a value which is then dropped, but only one gets interned.
+		assertTrue( created.get() >= KEYS );
+		assertEquals( KEYS, interner.size() );
+	}
+
+	/**
+	 * Compares the throughput under contention with the previous synchronized {@link WeakHashMap}. Only runs with
+	 * -Dappeng.benchmark=true, timings of a shared build machine are no test.
+	 */
+	@Test
+	public void benchmarkContention() throws InterruptedException
+	{
+		Assume.assumeTrue( Boolean.getBoolean( "appeng.benchmark" ) );
+
+		final WeakInterner<Value> interner = new WeakInterner<>();
+		final Map<Value, WeakReference<Value>> map = new WeakHashMap<>();
+
+		// same work for both, after warming up.
+		long interned = 0;
+		long synced = 0;
+		for( int i = 0; i < 2; i++ )
+		{
+			interned = run( () -> lookup( interner ) );
+			synced = run( () -> lookup( map ) );
+		}
+
+		System.out.println( "WeakInterner: " + interned / 1000000 + "ms, synchronized WeakHashMap: " + synced / 1000000 + "ms for " + THREADS + " threads" );
+	}
+
+	private static void lookup( final WeakInterner<Value> interner )
+	{
+		final AtomicInteger created = new AtomicInteger();
+		for( int round = 0; round < ROUNDS; round++ )
+		{
+			for( int i = 0; i < KEYS; i++ )
+			{
+				intern( interner, new Stack( i, 1 + round ), created );
+			}
+		}
+	}
+
+	private static void lookup( final Map<Value, WeakReference<Value>> map )
+	{
+		for( int round = 0; round < ROUNDS; round++ )
+		{
+			for( int i = 0; i < KEYS; i++ )
+			{
+				synchronized( map )
+				{
+					final Value search = new Value( i );
+					final WeakReference<Value> ref = map.get( search );
+					if( ref == null || ref.get() == null )
+					{
+						map.put( search, new WeakReference<>( search ) );
+					}
+				}
+			}
+		}
+	}
+
+	private static Value intern( final WeakInterner<Value> interner, final Stack stack, final AtomicInteger created )
+	{
+		return interner.intern( stack, Integer.hashCode( stack.id ), ( s, v ) -> s.id == v.id, s ->
+		{
+			created.incrementAndGet();
+			return new Value( s.id );
+		} );
+	}
+
+	/**
+	 * @return the nanoseconds from starting the threads until all of them finished.
+	 */
+	private static long run( final Runnable task ) throws InterruptedException
+	{
+		final CountDownLatch start = new CountDownLatch( 1 );
+		final Thread[] threads = new Thread[THREADS];
+
+		for( int i = 0; i < THREADS; i++ )
+		{
+			threads[i] = new Thread( () ->
+			{
+				try
+				{
+					start.await();
+				}
+				catch( final InterruptedException e )
+				{
+					return;
+				}
+				task.run();
+			} );
+			threads[i].start();
+		}
+
+		final long begin = System.nanoTime();
+		start.countDown();
+		for( final Thread thread : threads )
+		{
+			thread.join();
+		}
+		return System.nanoTime() - begin;
+	}
+
+	/**
+	 * Mimics an ItemStack, the size is not part of its identity.
+	 */
+	private static final class Stack
+	{
+		private final int id;
+		private final int size;
+
+		private Stack( final int id, final int size )
+		{
+			this.id = id;
+			this.size = size;
+		}
+	}
+
+	private static final class Value
+	{
+		private final int id;
+		private final int size = 1;
+
+		private Value( final int id )
+		{
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Integer.hashCode( this.id );
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			return obj instanceof Value && ( (Value) obj ).id == this.id;
+		}
+	}
+}